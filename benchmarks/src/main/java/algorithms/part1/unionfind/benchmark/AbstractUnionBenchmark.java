@@ -0,0 +1,191 @@
+package algorithms.part1.unionfind.benchmark;
+
+import algorithms.part1.unionfind.UnionI;
+import algorithms.part1.unionfind.UnionMain;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * <p align="justify">The three workloads measured for every {@linkplain UnionI} implementation:</p>
+ * <ul>
+ * <li>union-heavy: only unions, one pass over all the input pairs per invocation.</li>
+ * <li>connected-heavy: only connected queries, one per invocation, over random pairs, against the structure with all input pairs
+ * already united.</li>
+ * <li>mixed: one union for every {@value #MIXED_QUERIES} connected queries, the usual shape of online workloads, one pass over all the
+ * input pairs per invocation.</li>
+ * </ul>
+ * <p align="justify">Union-heavy and mixed use up their structure in one pass, so each invocation gets a fresh one from
+ * {@linkplain Fresh}, built before the invocation and outside the measured time. Their score is passes per second, and the secondary
+ * "operations" score, from {@linkplain Operations}, is unions and queries per second, comparable with connected-heavy. On inputs as
+ * small as tinyUF a pass is so short that the timestamps taken around each invocation weigh on it.</p>
+ * @author Heron Sanches
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class AbstractUnionBenchmark {
+   
+   static final int MIXED_QUERIES = 9;
+   private static final int QUERY_PAIRS = 1 << 20;
+   
+   private Workload workload;
+   private int queries[];
+   
+   private UnionI connectedAlgorithm;
+   private int connectedCursor;
+   
+   private int mixedQueryCursor;
+   
+   
+   /**@return the algorithm name, as accepted by {@linkplain UnionMain#newAlgorithm(String, int)}.*/
+   protected abstract String algorithm();
+   
+   
+   /**@return the workload spec, as accepted by {@linkplain Workload#load(String)}.*/
+   protected abstract String input();
+   
+   
+   @Setup
+   public void setup(){
+      
+      workload = Workload.load(input());
+      queries = workload.queries(QUERY_PAIRS);
+      connectedAlgorithm = newAlgorithm(algorithm(), workload.n);
+      
+      for(int i=0; i<workload.pairs.length; i+=2)
+         connectedAlgorithm.union(workload.pairs[i], workload.pairs[i+1]);
+      
+   }
+   
+   
+   private static UnionI newAlgorithm(String name, int n){
+      
+      UnionI algorithm = UnionMain.newAlgorithm(name, n);
+      
+      if(algorithm == null)
+         throw new IllegalArgumentException("unknown algorithm: "+name);
+      
+      return algorithm;
+      
+   }
+   
+   
+   @Benchmark
+   public void unionHeavy(Fresh fresh, Operations operations){
+      
+      UnionI algorithm = fresh.algorithm;
+      int pairs[] = workload.pairs;
+      
+      for(int i=0; i<pairs.length; i+=2)
+         algorithm.union(pairs[i], pairs[i+1]);
+      
+      operations.operations += pairs.length / 2;
+      
+   }
+   
+   
+   @Benchmark
+   public boolean connectedHeavy(){
+      
+      if(connectedCursor == queries.length)
+         connectedCursor = 0;
+      
+      boolean connected = connectedAlgorithm.connected(queries[connectedCursor], queries[connectedCursor+1]);
+      connectedCursor += 2;
+      return connected;
+      
+   }
+   
+   
+   @Benchmark
+   public int mixed(Fresh fresh, Operations operations){
+      
+      UnionI algorithm = fresh.algorithm;
+      int pairs[] = workload.pairs;
+      int connected = 0;
+      
+      for(int i=0; i<pairs.length; i+=2){
+         
+         algorithm.union(pairs[i], pairs[i+1]);
+         
+         for(int k=0; k<MIXED_QUERIES; k++){
+            
+            if(mixedQueryCursor == queries.length)
+               mixedQueryCursor = 0;
+            
+            if(algorithm.connected(queries[mixedQueryCursor], queries[mixedQueryCursor+1]))
+               connected++;
+            
+            mixedQueryCursor += 2;
+            
+         }
+         
+      }
+      
+      operations.operations += pairs.length / 2 * (MIXED_QUERIES + 1);
+      return connected;
+      
+   }
+   
+   
+   /**A structure with no unions for each invocation of union-heavy and mixed, built by the setup of the invocation, so the time to
+    * build it is not measured. It is a state of its own, so connected-heavy is not timestamped per invocation.*/
+   @State(Scope.Thread)
+   public static class Fresh {
+      
+      private String name;
+      private int n;
+      UnionI algorithm;
+      
+      
+      /**@param params the algorithm and input params of the benchmark.*/
+      @Setup
+      public void sites(BenchmarkParams params){
+         
+         name = params.getParam("algorithm");
+         n = Workload.sites(params.getParam("input"));
+         
+      }
+      
+      
+      @Setup(Level.Invocation)
+      public void build(){
+         algorithm = newAlgorithm(name, n);
+      }
+      
+      
+   }
+   
+   
+   /**Unions and queries run by union-heavy and mixed, reported by JMH per second as the "operations" secondary score.*/
+   @State(Scope.Thread)
+   @AuxCounters(AuxCounters.Type.OPERATIONS)
+   public static class Operations {
+      
+      public long operations;
+      
+      
+      @Setup(Level.Iteration)
+      public void clear(){
+         operations = 0;
+      }
+      
+      
+   }
+   
+   
+}
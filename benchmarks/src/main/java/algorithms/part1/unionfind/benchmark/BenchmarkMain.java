@@ -0,0 +1,33 @@
+package algorithms.part1.unionfind.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *
+ * @author Heron Sanches
+ */
+public class BenchmarkMain {
+   
+   
+   /**Execution: <br>
+    * 1 - mvn clean install (main project) <br>
+    * 2 - mvn clean package (benchmarks project) <br>
+    * 3 - java -jar target/benchmarks.jar [JMH options, e.g. UnionBenchmark -p algorithm=WQU,WQUPC] <br>
+    * Besides ops/s, it always reports the allocation rate (gc.alloc.rate and gc.alloc.rate.norm) through the JMH GC profiler.*/
+   public static void main(String[] args) throws Exception {
+      
+      Options options = new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .build();
+      
+      new Runner(options).run();
+      
+   }
+   
+   
+}
@@ -0,0 +1,35 @@
+package algorithms.part1.unionfind.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * <p align="justify">Generated inputs with millions of pairs. QF and QU are left out by default: QF scans all the sites on 
+ * every union and QU builds tall trees, so just the setup (uniting every pair once) takes hours at this size. Add them with
+ * -p algorithm=QF,QU,WQU,WQUPC to measure them anyway.</p>
+ * @author Heron Sanches
+ */
+@State(Scope.Thread)
+public class LargeUnionBenchmark extends AbstractUnionBenchmark {
+   
+   @Param({"WQF", "WQU", "WQUPC"})
+   public String algorithm;
+   
+   @Param({"random:1000000:2000000", "random:10000000:20000000"})
+   public String input;
+   
+   
+   @Override
+   protected String algorithm(){
+      return algorithm;
+   }
+   
+   
+   @Override
+   protected String input(){
+      return input;
+   }
+   
+   
+}
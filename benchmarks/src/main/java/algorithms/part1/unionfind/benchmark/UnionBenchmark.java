@@ -0,0 +1,33 @@
+package algorithms.part1.unionfind.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * <p align="justify">All the {@linkplain algorithms.part1.unionfind.UnionI} implementations over the inputs of the main project.</p>
+ * @author Heron Sanches
+ */
+@State(Scope.Thread)
+public class UnionBenchmark extends AbstractUnionBenchmark {
+   
+   @Param({"QF", "WQF", "QU", "WQU", "WQUPC"})
+   public String algorithm;
+   
+   @Param({"/txt/tinyUF.txt", "/txt/mediumUF.txt"})
+   public String input;
+   
+   
+   @Override
+   protected String algorithm(){
+      return algorithm;
+   }
+   
+   
+   @Override
+   protected String input(){
+      return input;
+   }
+   
+   
+}
@@ -0,0 +1,112 @@
+package algorithms.part1.unionfind.benchmark;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Scanner;
+import java.util.SplittableRandom;
+
+/**
+ * <p align="justify">Pairs of sites for the benchmarks, read from a resource of the main project (e.g. /txt/mediumUF.txt) or 
+ * generated from a "random:sites:pairs" spec (e.g. random:1000000:2000000). Generated inputs always use the same seed, so 
+ * every run measures the same workload.</p>
+ * @author Heron Sanches
+ */
+final class Workload {
+   
+   private static final String RANDOM_PREFIX = "random:";
+   private static final long SEED = 20170213L;
+   private static final long QUERY_SEED = 20170214L;
+   
+   /**Number of sites.*/
+   final int n;
+   
+   /**Pairs of sites, p at even indexes and q at odd indexes.*/
+   final int pairs[];
+   
+   
+   private Workload(int n, int pairs[]){
+      
+      this.n = n;
+      this.pairs = pairs;
+      
+   }
+   
+   
+   /**@param spec a resource path, e.g. /txt/tinyUF.txt, or random:sites:pairs.*/
+   static Workload load(String spec){
+      
+      if(spec.startsWith(RANDOM_PREFIX)){
+         
+         String parts[] = spec.substring(RANDOM_PREFIX.length()).split(":");
+         int n = Integer.parseInt(parts[0]);
+         return new Workload(n, randomPairs(n, Integer.parseInt(parts[1]), SEED));
+         
+      }
+      
+      InputStream stream = Workload.class.getResourceAsStream(spec);
+      
+      if(stream == null)
+         throw new IllegalArgumentException("resource not found: "+spec);
+      
+      try(Scanner input = new Scanner(stream)){
+         
+         int n = input.nextInt();
+         int pairs[] = new int[1024];
+         int size = 0;
+         
+         while(input.hasNext()){
+            
+            if(size == pairs.length)
+               pairs = Arrays.copyOf(pairs, size * 2);
+            
+            pairs[size++] = input.nextInt();
+            
+         }
+         
+         return new Workload(n, Arrays.copyOf(pairs, size));
+         
+      }
+      
+   }
+   
+   
+   /**@param spec as accepted by {@linkplain #load(String)}.
+    * @return the number of sites, with no pairs read or generated.*/
+   static int sites(String spec){
+      
+      if(spec.startsWith(RANDOM_PREFIX))
+         return Integer.parseInt(spec.substring(RANDOM_PREFIX.length()).split(":")[0]);
+      
+      InputStream stream = Workload.class.getResourceAsStream(spec);
+      
+      if(stream == null)
+         throw new IllegalArgumentException("resource not found: "+spec);
+      
+      try(Scanner input = new Scanner(stream)){
+         return input.nextInt();
+      }
+      
+   }
+   
+   
+   /**@return count random pairs of sites of this workload, to be used as connected queries.*/
+   int[] queries(int count){
+      return randomPairs(n, count, QUERY_SEED);
+   }
+   
+   
+   /**@return count pairs of sites uniformly drawn from [0, n).*/
+   private static int[] randomPairs(int n, int count, long seed){
+      
+      SplittableRandom random = new SplittableRandom(seed);
+      int pairs[] = new int[count * 2];
+      
+      for(int i=0; i<pairs.length; i++)
+         pairs[i] = random.nextInt(n);
+      
+      return pairs;
+      
+   }
+   
+   
+}
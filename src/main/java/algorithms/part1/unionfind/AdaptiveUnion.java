@@ -0,0 +1,250 @@
+package algorithms.part1.unionfind;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p align="justify">The algorithm picked by the input, so nobody has to know the names. It starts with the one that fits the number of
+ * sites, the expected number of pairs and the expected fraction of connected queries, if known, and every {@value #PROBE} operations it
+ * looks at the fraction of queries seen so far and at the depth of some sampled sites, and it may move to another one: the components
+ * are migrated to the new algorithm, each site united to its root in the old one ({@linkplain Components#roots(UnionI, int)}), O(n), so
+ * it only moves again after at least n more operations.</p>
+ * <p align="justify">It only picks WQF (queries in one read, for query-dominated or sparse inputs), WQUPH (everything else) and CWQU
+ * (one int per site, for huge numbers of sites), never QF nor QU, which are quadratic on big inputs.</p>
+ * @author Heron Sanches
+ */
+public final class AdaptiveUnion implements UnionI{
+   
+   /**Operations between two probes, a power of two.*/
+   static final int PROBE = 1 << 16;
+   
+   /**Fraction of queries from which WQF is worth it.*/
+   private static final double QUERY_HEAVY = 0.9;
+   
+   /**Fraction of queries below which WQF's relabeling costs more than the faster queries save.*/
+   private static final double UNION_HEAVY = 0.5;
+   
+   /**Mean depth of the sampled sites (WQF's is at most 1) from which WQF's one-read find pays off.*/
+   private static final double DEEP = 1.0;
+   
+   /**Sites sampled by each probe.*/
+   private static final int SAMPLES = 64;
+   
+   /**Sites from which CWQU's one array is worth more than WQUPH's two.*/
+   private static final int COMPACT_SITES = 1 << 26;
+   
+   /**Seed of the sampling, fixed, so the same input makes the same choices.*/
+   private static final long SEED = 0x5DEECE66DL;
+   
+   private final int n;
+   private UnionI algorithm;
+   private String name;
+   private final SplittableRandom random = new SplittableRandom(SEED);
+   private long operations;
+   private long operationsSinceMigration;
+   private long unions;
+   private long queries;
+   private int migrations;
+   
+   
+   /**Nothing known about the input, it starts with WQUPH (or CWQU) and learns from the operations.*/
+   public AdaptiveUnion(int n){
+      this(n, -1, -1);
+   }
+   
+   
+   /**@param pairs expected number of pairs, or -1 if not known.
+    * @param queryRatio expected fraction of connected queries among all operations, or -1 if not known.*/
+   public AdaptiveUnion(int n, long pairs, double queryRatio){
+      
+      this.n = n;
+      this.name = choose(n, pairs, queryRatio);
+      this.algorithm = UnionMain.newAlgorithm(name, n);
+      
+   }
+   
+   
+   /**@param input the input file, its size gives an estimate of the number of pairs, see {@linkplain #estimatePairs(Path, int)}.
+    * @param queryRatio expected fraction of connected queries, or -1 if not known.*/
+   public static AdaptiveUnion forInput(int n, Path input, double queryRatio) throws IOException {
+      return new AdaptiveUnion(n, estimatePairs(input, n), queryRatio);
+   }
+   
+   
+   /**@return the number of pairs of a binary input ({@value BinaryEdgeReader#EXTENSION}), or an estimate for a txt one, from its
+    * size and the number of digits of the biggest site.*/
+   public static long estimatePairs(Path input, int n) throws IOException {
+      
+      long bytes = Files.size(input);
+      
+      if(input.toString().endsWith(BinaryEdgeReader.EXTENSION))
+         return (bytes - BinaryEdgeReader.HEADER_BYTES) / (2 * Integer.BYTES);
+      
+      int digits = Integer.toString(Math.max(0, n - 1)).length();
+      return bytes / (2 * (digits + 1)); //two sites and their separators per pair
+      
+   }
+   
+   
+   /**@param pairs expected number of pairs, or -1 if not known.
+    * @param queryRatio expected fraction of connected queries, or -1 if not known.
+    * @return WQF, WQUPH or CWQU, as accepted by {@linkplain UnionMain#newAlgorithm(String, int)}.*/
+   public static String choose(int n, long pairs, double queryRatio){
+      
+      if(queryRatio >= QUERY_HEAVY)
+         return "WQF";
+      
+      if(pairs >= 0 && pairs <= n / 16) //so few unions that relabeling costs nothing
+         return "WQF";
+      
+      return tree(n);
+      
+   }
+   
+   
+   private static String tree(int n){
+      return n >= COMPACT_SITES ? "CWQU" : "WQUPH";
+   }
+   
+   
+   /**@return the name of the algorithm in use.*/
+   public String algorithm(){
+      return name;
+   }
+   
+   
+   /**@return how many times the components were migrated to another algorithm.*/
+   public int migrations(){
+      return migrations;
+   }
+   
+   
+   @Override
+   public int find(int p){
+      return algorithm.find(p);
+   }
+   
+   
+   @Override
+   public boolean connected(int p, int q){
+      
+      queries++;
+      operation();
+      return algorithm.connected(p, q);
+      
+   }
+   
+   
+   @Override
+   public void union(int p, int q){
+      
+      unions++;
+      operation();
+      algorithm.union(p, q);
+      
+   }
+   
+   
+   @Override
+   public int count(){
+      return algorithm.count();
+   }
+   
+   
+   @Override
+   public int componentSize(int p){
+      return algorithm.componentSize(p);
+   }
+   
+   
+   @Override
+   public void exportComponents(Writer out) throws IOException {
+      algorithm.exportComponents(out);
+   }
+   
+   
+   private void operation(){
+      
+      operationsSinceMigration++;
+      
+      if((++operations & (PROBE - 1)) == 0)
+         probe();
+      
+   }
+   
+   
+   /**It looks at the operations since the last probe and may migrate to another algorithm.*/
+   private void probe(){
+      
+      double queryRatio = (double) queries / (queries + unions);
+      queries = unions = 0;
+      
+      if(operationsSinceMigration < n) //the last migration is not paid yet
+         return;
+      
+      String next = name;
+      
+      if(!"WQF".equals(name) && queryRatio >= QUERY_HEAVY && meanDepth() > DEEP)
+         next = "WQF";
+      else if("WQF".equals(name) && queryRatio < UNION_HEAVY)
+         next = tree(n);
+      
+      if(!next.equals(name))
+         migrate(next);
+      
+   }
+   
+   
+   /**@return the mean number of find() steps from the sampled sites to their roots.*/
+   private double meanDepth(){
+      
+      long steps = 0;
+      
+      for(int i=0; i<SAMPLES; i++){
+         
+         int p = random.nextInt(n);
+         int up;
+         
+         while( (up = algorithm.find(p)) != p){
+            
+            p = up;
+            steps++;
+            
+         }
+         
+      }
+      
+      return (double) steps / SAMPLES;
+      
+   }
+   
+   
+   /**It unites, in a new algorithm, each site to its root in the one in use, and then uses the new one.*/
+   private void migrate(String next){
+      
+      UnionI migrated = UnionMain.newAlgorithm(next, n);
+      int roots[] = Components.roots(algorithm, n);
+      
+      for(int i=0; i<n; i++){
+         
+         if(roots[i] != i)
+            migrated.union(i, roots[i]);
+         
+      }
+      
+      Logger.getLogger(AdaptiveUnion.class.getName()).log(Level.INFO, "migrated from {0} to {1} after {2} operations",
+            new Object[]{name, next, operations});
+      algorithm = migrated;
+      name = next;
+      operationsSinceMigration = 0;
+      migrations++;
+      
+   }
+   
+   
+}
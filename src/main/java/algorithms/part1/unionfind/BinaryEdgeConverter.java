@@ -0,0 +1,83 @@
+package algorithms.part1.unionfind;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p align="justify">Converts a txt union-find input (e.g. /txt/mediumUF.txt or /percolation/input10.txt) to the binary format
+ * read by {@linkplain BinaryEdgeReader}, so big inputs are parsed only once.</p>
+ * @author Heron Sanches
+ */
+public final class BinaryEdgeConverter {
+   
+   private static final int BUFFER_INTS = 1 << 14;
+   
+   
+   private BinaryEdgeConverter(){}
+   
+   
+   /**Execution: <br>
+    * mvn exec:java -Dexec.mainClass="algorithms.part1.unionfind.BinaryEdgeConverter" -Dexec.args="[0] [1]"
+    * @param args [0]: txt input, resource path or file system path <br>
+    * [1]: binary output file, e.g. /data/mediumUF.ufb*/
+   public static void main(String[] args) throws IOException {
+      
+      long count = convert(args[0], args[1]);
+      System.out.println(count+" ints written to "+args[1]);
+      
+   }
+   
+   
+   /**@param txtPath txt input, resource path or file system path.
+    * @param binaryPath binary output file.
+    * @return how many ints were written after the header.*/
+   public static long convert(String txtPath, String binaryPath) throws IOException {
+      
+      try(MappedTxtReader input = new MappedTxtReader(txtPath);
+          FileChannel output = FileChannel.open(Paths.get(binaryPath), StandardOpenOption.CREATE, 
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)){
+         
+         ByteBuffer header = ByteBuffer.allocate(BinaryEdgeReader.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+         header.putInt(BinaryEdgeReader.MAGIC).putInt(BinaryEdgeReader.VERSION).putInt(input.nextInt()).putLong(0);
+         header.flip();
+         write(output, header);
+         
+         ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_INTS * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+         int batch[] = new int[BUFFER_INTS];
+         long count = 0;
+         int size;
+         
+         while((size = input.nextBatch(batch)) > 0){
+            
+            buffer.clear();
+            buffer.asIntBuffer().put(batch, 0, size);
+            buffer.limit(size * Integer.BYTES);
+            write(output, buffer);
+            count += size;
+            
+         }
+         
+         header.clear();
+         header.putLong(0, count); //the count is only known at the end
+         header.limit(Long.BYTES);
+         output.write(header, BinaryEdgeReader.HEADER_BYTES - Long.BYTES);
+         return count;
+         
+      }
+      
+   }
+   
+   
+   private static void write(FileChannel output, ByteBuffer buffer) throws IOException {
+      
+      while(buffer.hasRemaining())
+         output.write(buffer);
+      
+   }
+   
+   
+}
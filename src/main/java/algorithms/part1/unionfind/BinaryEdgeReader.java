@@ -0,0 +1,167 @@
+package algorithms.part1.unionfind;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ * <p align="justify">Reads the binary union-find format written by {@linkplain BinaryEdgeConverter}, all little-endian:</p>
+ * <ul>
+ * <li>int magic, {@value #MAGIC} ("UFB1");</li>
+ * <li>int version, {@value #VERSION};</li>
+ * <li>int number of sites (the first int of the txt format);</li>
+ * <li>long number of ints that follow;</li>
+ * <li>the ints, int32, in the same order as the txt format (p q p q ...).</li>
+ * </ul>
+ * <p align="justify">As {@linkplain MappedTxtReader}, the first {@linkplain #nextInt()} returns the number of sites. The ints are
+ * copied in bulk from the memory-mapped file, so there is nothing to parse.</p>
+ * @author Heron Sanches
+ */
+public final class BinaryEdgeReader implements EdgeReaderI {
+   
+   public static final String EXTENSION = ".ufb";
+   public static final int MAGIC = 0x31424655;
+   public static final int VERSION = 1;
+   public static final int HEADER_BYTES = 20;
+   
+   /**Ints mapped at once, 1GB.*/
+   private static final long WINDOW_INTS = 1 << 28;
+   
+   private final FileChannel channel;
+   private final int sites;
+   private final long count;
+   private boolean sitesRead;
+   private long mapped;
+   private IntBuffer ints;
+   
+   
+   /**@param path a resource path or a file system path, see {@linkplain TxtUtils#resolvePath(String)}.*/
+   public BinaryEdgeReader(String path) throws IOException {
+      this(TxtUtils.resolvePath(path));
+   }
+   
+   
+   public BinaryEdgeReader(Path path) throws IOException {
+      
+      this.channel = FileChannel.open(path, StandardOpenOption.READ);
+      
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      
+      while(header.hasRemaining() && channel.read(header) != -1);
+      
+      header.flip();
+      
+      if(header.remaining() < HEADER_BYTES || header.getInt() != MAGIC){
+         
+         channel.close();
+         throw new InputMismatchException(path+" is not a union-find binary file");
+         
+      }
+      
+      int version = header.getInt();
+      
+      if(version != VERSION){
+         
+         channel.close();
+         throw new InputMismatchException(path+": unsupported version "+version);
+         
+      }
+      
+      this.sites = header.getInt();
+      this.count = header.getLong();
+      
+      if(count < 0 || HEADER_BYTES + count * Integer.BYTES > channel.size()){
+         
+         channel.close();
+         throw new InputMismatchException(path+" is truncated");
+         
+      }
+      
+      nextWindow();
+      
+   }
+   
+   
+   /**Maps the next window of ints.
+    * @return false if all ints were already read.*/
+   private boolean nextWindow() throws IOException {
+      
+      if(ints != null && mapped >= count)
+         return false;
+      
+      long size = Math.min(WINDOW_INTS, count - mapped);
+      ints = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + mapped * Integer.BYTES, size * Integer.BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+      mapped += size;
+      return size > 0;
+      
+   }
+   
+   
+   @Override
+   public boolean hasNext() throws IOException {
+      return !sitesRead || ints.hasRemaining() || nextWindow();
+   }
+   
+   
+   /**@return the number of sites on the first call, then the next int of the file.
+    * @throws NoSuchElementException if there is no other int.*/
+   @Override
+   public int nextInt() throws IOException {
+      
+      if(!sitesRead){
+         
+         sitesRead = true;
+         return sites;
+         
+      }
+      
+      if(!ints.hasRemaining() && !nextWindow())
+         throw new NoSuchElementException();
+      
+      return ints.get();
+      
+   }
+   
+   
+   /**It fills the batch with the next ints of the file.
+    * @return how many ints were read, less than batch.length only at the end of the file.
+    * @throws InputMismatchException if the file ends in the middle of a pair, an odd number of ints after the header.*/
+   @Override
+   public int nextBatch(int batch[]) throws IOException {
+      
+      int size = 0;
+      
+      if(!sitesRead && batch.length > 0)
+         batch[size++] = nextInt();
+      
+      while(size < batch.length && (ints.hasRemaining() || nextWindow())){
+         
+         int length = Math.min(batch.length - size, ints.remaining());
+         ints.get(batch, size, length);
+         size += length;
+         
+      }
+      
+      if(size < batch.length && (count & 1) != 0)
+         throw new InputMismatchException("the file ends in the middle of a pair");
+      
+      return size;
+      
+   }
+   
+   
+   /**It closes the file.*/
+   @Override
+   public void close() throws IOException {
+      channel.close();
+   }
+   
+   
+}
@@ -0,0 +1,121 @@
+package algorithms.part1.unionfind;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * <p align="justify">Weighted quick union with path halving in a single int array: a site with a value >= 0 points to its parent,
+ * and a root keeps the size of its tree as a negative value (-size). Half the memory of {@linkplain WeightedQuickUnionPathHalving},
+ * and the size is read on the same cache line as the root itself.</p>
+ * @author Heron Sanches
+ */
+public final class CompactWeightedQuickUnion implements UnionI{
+
+   private final int n;
+   
+   /**Parent of each site, or -size of the tree on the roots.*/
+   private final int data[];
+   private int qttComponents;
+
+   
+   public CompactWeightedQuickUnion(int n){
+      
+      this.n = n;
+      this.data = new int[n];
+      this.qttComponents = n;
+      
+      for(int i=0; i<n; i++)
+         data[i] = -1;
+      
+   }
+   
+   
+   /**This method finds a site on data array (represents the components) and returns your value, as in the other 
+    * implementations: the parent of the site, or the site itself if it is a root.
+    *@param p site.*/
+   @Override
+   public int find(int p){
+      return data[p] < 0 ? p : data[p];
+   }
+   
+   
+   /**@param p site, that is represented by an index element on data array, in this case the array represents a forest.
+    * @return the root of the tree - the array (data[]) index.*/
+   public int root(int p){
+      
+      int parent;
+      
+      while( (parent = data[p]) >= 0){
+         
+         if(data[parent] >= 0)
+            data[p] = data[parent]; //path halving, p points to its grandparent
+         
+         p = data[p];
+         
+      }
+      
+      return p;
+      
+   }
+   
+   
+   /**@param p site, that is represented by an index element on data array.
+    * @param q site.
+    * @return true if the two sites are connected, otherwise returns false*/
+   @Override
+   public boolean connected(int p, int q){
+      return root(p) == root(q);
+   }
+   
+   
+   /**This method connect these two sites to the same component, those components now have the same root tree.
+    * @param p: site, that is represented by an index element on data array.
+    * @param q: site.*/
+   @Override
+   public void union(int p, int q){
+
+      int pRoot = root(p);
+      int qRoot = root(q);
+      
+      if(pRoot == qRoot)
+         return;
+      
+      if(data[pRoot] < data[qRoot]){ //p's tree is bigger (sizes are negative)
+         
+         data[pRoot] += data[qRoot];
+         data[qRoot] = pRoot; //q's root points to the p's root
+         
+      }else{
+         
+         data[qRoot] += data[pRoot];
+         data[pRoot] = qRoot; //p's root points to the q's root
+         
+      }
+      
+      qttComponents--;
+      
+   }
+   
+   
+   /**@return number of components.*/
+   @Override
+   public int count(){
+      return qttComponents;
+   }
+   
+   
+   /**@return number of sites of the component of p.*/
+   @Override
+   public int componentSize(int p){
+      return -data[root(p)];
+   }
+   
+   
+   /**It writes all components, grouped in linear time by {@linkplain Components}.*/
+   @Override
+   public void exportComponents(Writer out) throws IOException {
+      Components.of(this, n).write(out);
+   }
+   
+   
+}
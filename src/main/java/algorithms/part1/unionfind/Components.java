@@ -0,0 +1,186 @@
+package algorithms.part1.unionfind;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * <p align="justify">The components of a {@linkplain UnionI}, grouped in linear time in a CSR layout: the members of component c are
+ * members[offsets[c]] to members[offsets[c+1]-1], in increasing order, and the components are ordered by their roots.
+ * Three int arrays, no boxing and no per-component objects.</p>
+ * @author Heron Sanches
+ */
+public final class Components {
+   
+   private final int offsets[];
+   private final int members[];
+   
+   
+   private Components(int offsets[], int members[]){
+      
+      this.offsets = offsets;
+      this.members = members;
+      
+   }
+   
+   
+   /**@return the root of the site, following {@linkplain UnionI#find(int)} until a site that points to itself. O(height) per call,
+    * for all sites use {@linkplain #roots(UnionI, int)}.*/
+   public static int root(UnionI algorithm, int p){
+      
+      int parent;
+      
+      while( (parent = algorithm.find(p)) != p)
+         p = parent;
+      
+      return p;
+      
+   }
+   
+   
+   /**It follows each path only once: every site walked on the way to a root gets that root, and a walk stops at the first site that
+    * already has one, so it costs O(n) finds in total, not O(n * height).
+    * @param n number of sites of the algorithm.
+    * @return the root of each site.*/
+   public static int[] roots(UnionI algorithm, int n){
+      
+      int roots[] = new int[n];
+      Arrays.fill(roots, -1);
+      
+      for(int i=0; i<n; i++){
+         
+         if(roots[i] != -1)
+            continue;
+         
+         int root = i;
+         int parent;
+         
+         while(roots[root] == -1 && (parent = algorithm.find(root)) != root) //up to the root or to a resolved site
+            root = parent;
+         
+         if(roots[root] == -1)
+            roots[root] = root;
+         
+         root = roots[root];
+         
+         for(int p=i; roots[p] == -1; ){ //the same path again, each site gets the root
+            
+            parent = algorithm.find(p);
+            roots[p] = root;
+            p = parent;
+            
+         }
+         
+      }
+      
+      return roots;
+      
+   }
+   
+   
+   /**@param n number of sites of the algorithm.*/
+   public static Components of(UnionI algorithm, int n){
+      return of(roots(algorithm, n));
+   }
+   
+   
+   /**@param roots the root of each site, already resolved (e.g. a flattened forest), one per site.*/
+   public static Components of(int roots[]){
+      
+      int n = roots.length;
+      int cursors[] = new int[n]; //first the size of each root's tree, then where its next member goes
+      int count = 0;
+      
+      for(int i=0; i<n; i++){
+         
+         if(cursors[roots[i]]++ == 0)
+            count++;
+         
+      }
+      
+      int offsets[] = new int[count + 1];
+      int c = 0;
+      
+      for(int root=0; root<n; root++){
+         
+         if(cursors[root] > 0){
+            
+            offsets[c + 1] = offsets[c] + cursors[root];
+            cursors[root] = offsets[c];
+            c++;
+            
+         }
+         
+      }
+      
+      int members[] = new int[n];
+      
+      for(int i=0; i<n; i++)
+         members[cursors[roots[i]]++] = i;
+      
+      return new Components(offsets, members);
+      
+   }
+   
+   
+   /**@return number of components.*/
+   public int count(){
+      return offsets.length - 1;
+   }
+   
+   
+   /**@return number of sites of the component c, from 0 to count()-1.*/
+   public int size(int c){
+      return offsets[c + 1] - offsets[c];
+   }
+   
+   
+   /**@return the i-th member of the component c.*/
+   public int member(int c, int i){
+      return members[offsets[c] + i];
+   }
+   
+   
+   /**It writes one component per line, the members separated by "-" (e.g. 0-5-6), a blank line after each one, and the number of
+    * components at the end. The caller should give a buffered writer.*/
+   public void write(Writer out) throws IOException {
+      
+      char digits[] = new char[11];
+      
+      for(int c=0; c<count(); c++){
+         
+         for(int i=offsets[c]; i<offsets[c + 1]; i++){
+            
+            if(i > offsets[c])
+               out.write('-');
+            
+            writeInt(out, members[i], digits);
+            
+         }
+         
+         out.write("\n\n");
+         
+      }
+      
+      out.write("\n"+count()+" components.\n");
+      
+   }
+   
+   
+   private static void writeInt(Writer out, int value, char digits[]) throws IOException {
+      
+      int start = digits.length;
+      
+      do{
+         
+         digits[--start] = (char) ('0' + value % 10);
+         value /= 10;
+         
+      }while(value > 0);
+      
+      out.write(digits, start, digits.length - start);
+      
+   }
+   
+   
+}
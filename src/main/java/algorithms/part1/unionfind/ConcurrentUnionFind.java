@@ -0,0 +1,181 @@
+package algorithms.part1.unionfind;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * <p align="justify">Lock-free union-find: many threads can call {@linkplain #union(int, int)} and {@linkplain #connected(int, int)}
+ * at the same time. The forest is kept in an {@linkplain AtomicIntegerArray}, a root is linked under another one with a single 
+ * CAS, and {@linkplain #root(int)} compresses the path by halving, also with CAS (a failed CAS only means another thread already
+ * changed that link, so it is just skipped).</p>
+ * <p align="justify">Roots are linked by a random but fixed priority of each site (a hash of its index), which keeps the expected 
+ * tree height logarithmic without having to update sizes or ranks atomically together with the link.</p>
+ * @author Heron Sanches
+ */
+public final class ConcurrentUnionFind implements UnionI{
+   
+   private final int n;
+   private final AtomicIntegerArray data;
+   private final AtomicInteger qttComponents;
+
+   
+   public ConcurrentUnionFind(int n){
+      
+      this.n = n;
+      this.data = new AtomicIntegerArray(n);
+      this.qttComponents = new AtomicInteger(n);
+      
+      for(int i=0; i<n; i++)
+         data.set(i, i);
+      
+   }
+   
+   
+   /**This method finds a site on data array (represents the components) and returns your value.
+    *@param p site.*/
+   @Override
+   public int find(int p){
+      return data.get(p);
+   }
+   
+   
+   /**@param p site, that is represented by an index element on data array, in this case the array represents a forest.
+    * @return the root of the tree - the array (data[]) index.*/
+   public int root(int p){
+      
+      int parent;
+      
+      while( (parent = data.get(p)) != p){
+         
+         int grandParent = data.get(parent);
+         
+         if(grandParent != parent)
+            data.compareAndSet(p, parent, grandParent); //path halving, p skips its parent
+         
+         p = grandParent;
+         
+      }
+      
+      return p;
+      
+   }
+   
+   
+   /**@param p site, that is represented by an index element on data array.
+    * @param q site.
+    * @return true if the two sites are connected, otherwise returns false*/
+   @Override
+   public boolean connected(int p, int q){
+      
+      while(true){
+         
+         p = root(p);
+         q = root(q);
+         
+         if(p == q)
+            return true;
+         
+         if(data.get(p) == p) //p still is a root after q was found, so both were different roots at that moment
+            return false;
+         
+      }
+      
+   }
+   
+   
+   /**This method connect these two sites to the same component, those components now have the same root tree.
+    * @param p: site, that is represented by an index element on data array.
+    * @param q: site.*/
+   @Override
+   public void union(int p, int q){
+      
+      while(true){
+         
+         p = root(p);
+         q = root(q);
+         
+         if(p == q)
+            return;
+         
+         if(lowerPriority(p, q)){
+            
+            if(data.compareAndSet(p, p, q)){ //p's root points to the q's root, if p still is a root
+               
+               qttComponents.decrementAndGet();
+               return;
+               
+            }
+            
+         }else if(data.compareAndSet(q, q, p)){ //q's root points to the p's root, if q still is a root
+            
+            qttComponents.decrementAndGet();
+            return;
+            
+         }
+         
+      }
+      
+   }
+   
+   
+   /**@return true if the site p has a lower linking priority than q. It is a strict total order, so two threads never link
+    * two roots under each other.*/
+   private static boolean lowerPriority(int p, int q){
+      
+      int pp = priority(p);
+      int qp = priority(q);
+      return pp < qp || (pp == qp && p < q);
+      
+   }
+   
+   
+   /**@return a hash of the site (murmur3 finalizer), so the priorities look random but are the same for every run.*/
+   private static int priority(int p){
+      
+      p ^= p >>> 16;
+      p *= 0x85ebca6b;
+      p ^= p >>> 13;
+      p *= 0xc2b2ae35;
+      p ^= p >>> 16;
+      return p;
+      
+   }
+   
+   
+   /**@return number of components.*/
+   @Override
+   public int count(){
+      return qttComponents.get();
+   }
+   
+   
+   /**@return number of sites of the component of p. O(n): the sizes are not kept, they could not be
+    * updated atomically together with the links. The result is only exact if no other thread is changing this structure.*/
+   @Override
+   public int componentSize(int p){
+      
+      int root = root(p);
+      int size = 0;
+      
+      for(int i=0; i<n; i++){
+         
+         if(root(i) == root)
+            size++;
+         
+      }
+      
+      return size;
+      
+   }
+   
+   
+   /**It writes all components, grouped in linear time by {@linkplain Components}.*/
+   @Override
+   public void exportComponents(Writer out) throws IOException {
+      Components.of(this, n).write(out);
+   }
+   
+   
+}
@@ -0,0 +1,320 @@
+package algorithms.part1.unionfind;
+
+import java.io.BufferedOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.InputMismatchException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p align="justify">Streaming engine for operation logs with unions and connected queries mixed:</p>
+ * <pre>
+ * 10
+ * union 4 3
+ * connected 3 4
+ * union 3 8
+ * connected 8 9
+ * </pre>
+ * <p align="justify">The first int is the number of sites; "union" and "connected" can be shortened to "u" and "c". It answers
+ * true or false for each connected query, one per line.</p>
+ * <p align="justify">Parsing and execution run on two threads, with a bounded single-producer/single-consumer ring buffer between 
+ * them: the parser thread reads bytes straight from the input and publishes operations in batches, the calling thread runs them on 
+ * the algorithm and writes the answers through a buffered output.</p>
+ * <p align="justify">It also works on an interactive input: the parser publishes what it has parsed before each read that may block,
+ * and the executor flushes the answers whenever it has run everything published and has to wait.</p>
+ * @author Heron Sanches
+ */
+public final class ConnectivityStream {
+   
+   private static final int UNION = 0;
+   private static final int CONNECTED = 1;
+   
+   /**Operations in the ring, a power of two.*/
+   private static final int CAPACITY = 1 << 16;
+   private static final int MASK = CAPACITY - 1;
+   
+   /**Operations parsed before they are published to the executor.*/
+   private static final int PUBLISH_BATCH = 1 << 8;
+   
+   private static final byte TRUE[] = "true\n".getBytes();
+   private static final byte FALSE[] = "false\n".getBytes();
+   
+   private final InputStream in;
+   private final byte buffer[] = new byte[1 << 16];
+   private int position;
+   private int limit;
+   
+   /**Operations parsed, parser thread only.*/
+   private long produced;
+   
+   /**Each operation takes 3 slots: operation, p and q.*/
+   private final int ring[] = new int[CAPACITY * 3];
+   
+   /**Operations published by the parser.*/
+   private final AtomicLong tail = new AtomicLong();
+   
+   /**Operations consumed by the executor.*/
+   private final AtomicLong head = new AtomicLong();
+   private volatile boolean parsed;
+   private volatile Throwable parseError;
+   
+   /**Set when the executor stops, done or failed, so the parser stops too instead of waiting for a ring nobody empties. A parser
+    * blocked on a read that can not be interrupted stops when the read returns.*/
+   private volatile boolean cancelled;
+   
+   
+   private ConnectivityStream(InputStream in){
+      this.in = in;
+   }
+   
+   
+   /**Execution: <br>
+    * mvn exec:java -Dexec.mainClass="algorithms.part1.unionfind.ConnectivityStream" -Dexec.args="[0] [1]"
+    * @param args [0]: algorithm, as accepted by {@linkplain UnionMain#newAlgorithm(String, int)} <br>
+    * [1]: operation log, a file system path, or - (or nothing) for the standard input*/
+   public static void main(String[] args) throws IOException {
+      
+      InputStream in = args.length < 2 || "-".equals(args[1]) ? System.in : new FileInputStream(TxtUtils.resolvePath(args[1]).toFile());
+      
+      try{
+         run(args[0], in, System.out);
+      }finally{
+         in.close();
+      }
+      
+   }
+   
+   
+   /**It runs all operations of the log and writes the answers of the connected queries.
+    * @param algorithm as accepted by {@linkplain UnionMain#newAlgorithm(String, int)}.
+    * @return the algorithm, after all operations.*/
+   public static UnionI run(String algorithm, InputStream in, OutputStream out) throws IOException {
+      
+      ConnectivityStream stream = new ConnectivityStream(in);
+      int n = stream.nextInt();
+      UnionI union = UnionMain.newAlgorithm(algorithm, n);
+      
+      if(union == null)
+         throw new IllegalArgumentException("unknown algorithm: "+algorithm);
+      
+      Thread parser = new Thread(stream::parse, "connectivity-parser");
+      parser.setDaemon(true);
+      parser.start();
+      
+      try{
+         stream.execute(union, out);
+      }finally{
+         parser.interrupt(); //wakes it up if it is waiting for room in the ring
+      }
+      
+      return union;
+      
+   }
+   
+   
+   /**Parser thread: it fills the ring, waiting while it is full.*/
+   private void parse(){
+      
+      try{
+         
+         int operation;
+         
+         while(!cancelled && (operation = nextOperation()) != -1){
+            
+            while(produced - head.get() == CAPACITY){ //full
+               
+               if(cancelled)
+                  return;
+               
+               tail.lazySet(produced);
+               waitABit();
+               
+            }
+            
+            int slot = (int) (produced & MASK) * 3;
+            ring[slot] = operation;
+            ring[slot + 1] = nextInt();
+            ring[slot + 2] = nextInt();
+            produced++;
+            
+            if((produced & (PUBLISH_BATCH - 1)) == 0)
+               tail.lazySet(produced);
+            
+         }
+         
+         tail.set(produced);
+         
+      }catch(Throwable ex){
+         parseError = ex;
+      }finally{
+         parsed = true;
+      }
+      
+   }
+   
+   
+   /**Calling thread: it runs the operations published by the parser, until the parser is done, and then, or if an operation or the
+    * output fails, it cancels the parser.*/
+   private void execute(UnionI union, OutputStream out) throws IOException {
+      
+      try{
+         consume(union, out);
+      }finally{
+         cancelled = true;
+      }
+      
+   }
+   
+   
+   private void consume(UnionI union, OutputStream out) throws IOException {
+      
+      OutputStream output = new BufferedOutputStream(out, 1 << 16);
+      long consumed = 0;
+      boolean unflushed = false;
+      
+      while(true){
+         
+         boolean done = parsed; //read before tail, so no operation published before the end is lost
+         long published = tail.get();
+         
+         if(consumed == published){
+            
+            if(done)
+               break;
+            
+            if(unflushed){ //idle, the answers so far are not held back while the parser waits for more input
+               
+               output.flush();
+               unflushed = false;
+               
+            }
+            
+            waitABit();
+            continue;
+            
+         }
+         
+         for(; consumed < published; consumed++){
+            
+            int slot = (int) (consumed & MASK) * 3;
+            
+            if(ring[slot] == UNION)
+               union.union(ring[slot + 1], ring[slot + 2]);
+            else{
+               
+               output.write(union.connected(ring[slot + 1], ring[slot + 2]) ? TRUE : FALSE);
+               unflushed = true;
+               
+            }
+            
+         }
+         
+         head.lazySet(consumed);
+         
+      }
+      
+      output.flush();
+      
+      Throwable error = parseError;
+
+      if(error instanceof IOException)
+         throw (IOException) error;
+
+      if(error instanceof RuntimeException)
+         throw (RuntimeException) error;
+
+      if(error != null)
+         throw new IllegalStateException(error);
+      
+   }
+   
+   
+   private static void waitABit(){
+      LockSupport.parkNanos(10_000);
+   }
+   
+   
+   /**@return the next byte, or -1 at the end of the input.*/
+   private int read() throws IOException {
+      
+      if(position == limit){
+         
+         tail.lazySet(produced); //the read may block, e.g. on an interactive input, so the executor gets all parsed operations first
+         limit = in.read(buffer, 0, buffer.length);
+         position = 0;
+         
+         if(limit <= 0){
+            
+            limit = 0;
+            return -1;
+            
+         }
+         
+      }
+      
+      return buffer[position++];
+      
+   }
+   
+   
+   /**@return the next byte that is not a white space, or -1 at the end of the input.*/
+   private int skipSpaces() throws IOException {
+      
+      int b;
+      
+      while( (b = read()) == ' ' || b == '\n' || b == '\r' || b == '\t');
+      
+      return b;
+      
+   }
+   
+   
+   /**@return UNION, CONNECTED, or -1 at the end of the input.*/
+   private int nextOperation() throws IOException {
+      
+      int b = skipSpaces();
+      
+      if(b == -1)
+         return -1;
+      
+      int operation = b == 'u' ? UNION : b == 'c' ? CONNECTED : -2;
+      
+      if(operation == -2)
+         throw new InputMismatchException("unknown operation starting with '"+(char) b+"'");
+      
+      while( (b = read()) >= 'a' && b <= 'z'); //rest of the word
+      
+      return operation;
+      
+   }
+   
+   
+   private int nextInt() throws IOException {
+      
+      int b = skipSpaces();
+      int value = 0;
+      int digits = 0;
+      
+      while(b >= '0' && b <= '9'){
+         
+         if(value > (Integer.MAX_VALUE - (b - '0')) / 10)
+            throw new InputMismatchException("site out of the int range");
+         
+         value = value * 10 + (b - '0');
+         digits++;
+         b = read();
+         
+      }
+      
+      if(digits == 0)
+         throw new InputMismatchException("site expected");
+      
+      return value;
+      
+   }
+   
+   
+}
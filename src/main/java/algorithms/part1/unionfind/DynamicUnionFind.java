@@ -0,0 +1,177 @@
+package algorithms.part1.unionfind;
+
+import java.util.Arrays;
+
+/**
+ * <p align="justify">Union-find over sites that keep arriving, identified by sparse long ids or by String keys instead of dense ints
+ * from 0 to n-1. Each new key gets the next dense id from a primitive hash map ({@linkplain LongIntHashMap}, 
+ * {@linkplain StringIntHashMap}), and the forest arrays grow geometrically, so there is no pre-pass to count and renumber the sites.
+ * Long ids and String keys are different sites, even if they look the same (5L and "5").</p>
+ * <p align="justify">The forest is a weighted quick union (sizes on the roots) with path halving, as in
+ * {@linkplain WeightedQuickUnionPathHalving}.</p>
+ * @author Heron Sanches
+ */
+public final class DynamicUnionFind {
+   
+   private static final int INITIAL_CAPACITY = 16;
+   
+   private final LongIntHashMap longIds;
+   private final StringIntHashMap stringIds;
+   private int data[];
+   private int dataSizes[];
+   private int n;
+   private int qttComponents;
+   
+   
+   public DynamicUnionFind(){
+      this(INITIAL_CAPACITY);
+   }
+   
+   
+   /**@param expectedSites how many sites are expected, to avoid growing the arrays on the way.*/
+   public DynamicUnionFind(int expectedSites){
+      
+      int capacity = Math.max(INITIAL_CAPACITY, expectedSites);
+      this.longIds = new LongIntHashMap(capacity);
+      this.stringIds = new StringIntHashMap(INITIAL_CAPACITY);
+      this.data = new int[capacity];
+      this.dataSizes = new int[capacity];
+      
+   }
+   
+   
+   /**@return the dense id of the key, a new site if the key was never seen.*/
+   public int id(long key){
+      
+      int id = longIds.putIfAbsent(key, n);
+      
+      if(id == n)
+         newSite();
+      
+      return id;
+      
+   }
+   
+   
+   /**@return the dense id of the key, a new site if the key was never seen.*/
+   public int id(String key){
+      
+      int id = stringIds.putIfAbsent(key, n);
+      
+      if(id == n)
+         newSite();
+      
+      return id;
+      
+   }
+   
+   
+   private void newSite(){
+      
+      if(n == data.length){
+         
+         data = Arrays.copyOf(data, n * 2);
+         dataSizes = Arrays.copyOf(dataSizes, n * 2);
+         
+      }
+      
+      data[n] = n;
+      dataSizes[n] = 1;
+      n++;
+      qttComponents++;
+      
+   }
+   
+   
+   /**@param p dense id.
+    * @return the root of the tree.*/
+   public int root(int p){
+      
+      while(data[p] != p){
+         
+         data[p] = data[data[p]]; //path halving, p points to its grandparent
+         p = data[p];
+         
+      }
+      
+      return p;
+      
+   }
+   
+   
+   /**This method connect these two sites to the same component, adding the ones never seen.*/
+   public void union(long p, long q){
+      unionIds(id(p), id(q));
+   }
+   
+   
+   /**This method connect these two sites to the same component, adding the ones never seen.*/
+   public void union(String p, String q){
+      unionIds(id(p), id(q));
+   }
+   
+   
+   /**@return true if the two sites are connected, otherwise returns false. A key never seen is only connected to itself.*/
+   public boolean connected(long p, long q){
+      
+      if(p == q)
+         return true;
+      
+      int pId = longIds.get(p);
+      int qId = longIds.get(q);
+      return pId >= 0 && qId >= 0 && root(pId) == root(qId);
+      
+   }
+   
+   
+   /**@return true if the two sites are connected, otherwise returns false. A key never seen is only connected to itself.*/
+   public boolean connected(String p, String q){
+      
+      if(p.equals(q))
+         return true;
+      
+      int pId = stringIds.get(p);
+      int qId = stringIds.get(q);
+      return pId >= 0 && qId >= 0 && root(pId) == root(qId);
+      
+   }
+   
+   
+   private void unionIds(int p, int q){
+      
+      int pRoot = root(p);
+      int qRoot = root(q);
+      
+      if(pRoot == qRoot)
+         return;
+      
+      if(dataSizes[pRoot] > dataSizes[qRoot]){
+         
+         data[qRoot] = pRoot; //q's root points to the p's root
+         dataSizes[pRoot] += dataSizes[qRoot];
+         
+      }else{
+         
+         data[pRoot] = qRoot; //p's root points to the q's root
+         dataSizes[qRoot] += dataSizes[pRoot];
+         
+      }
+      
+      qttComponents--;
+      
+   }
+   
+   
+   /**@return number of sites seen so far.*/
+   public int size(){
+      return n;
+   }
+   
+   
+   /**@return number of components.*/
+   public int count(){
+      return qttComponents;
+   }
+   
+   
+}
@@ -0,0 +1,35 @@
+package algorithms.part1.unionfind;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * <p align="justify">Reads a union-find input: the number of sites followed by pairs of sites (or, for the percolation inputs, 
+ * the grid size followed by pairs of row and column).</p>
+ * @author Heron Sanches
+ */
+public interface EdgeReaderI extends Closeable {
+   
+   boolean hasNext() throws IOException;
+   int nextInt() throws IOException;
+   
+   /**It fills the batch with the next ints, so a batch of even length always holds whole pairs.
+    * @return how many ints were read, less than batch.length only at the end of the input.
+    * @throws java.util.InputMismatchException if the input ends in the middle of a pair, so callers never read a slot of the batch
+    * that was not filled.*/
+   int nextBatch(int batch[]) throws IOException;
+   
+   
+   /**@param path a resource path or a file system path, see {@linkplain TxtUtils#resolvePath(String)}. Files with the
+    * {@value BinaryEdgeReader#EXTENSION} extension are read as {@linkplain BinaryEdgeReader binary}, any other as txt.*/
+   static EdgeReaderI open(String path) throws IOException {
+      
+      if(path.endsWith(BinaryEdgeReader.EXTENSION))
+         return new BinaryEdgeReader(path);
+      
+      return new MappedTxtReader(path);
+      
+   }
+   
+   
+}
@@ -0,0 +1,156 @@
+package algorithms.part1.unionfind;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * <p align="justify">One writer, many readers. The writer thread unites sites in its own {@linkplain WeightedQuickUnionPathHalving},
+ * which no other thread touches, and {@linkplain #publish()} copies it, flattened (each site straight to its root), into a new epoch
+ * on a volatile field. Readers answer find, connected, count and componentSize from the last published epoch: an epoch never changes
+ * after it is published, so readers take no lock and no CAS, and all the answers taken from the same epoch agree with each other.</p>
+ * <p align="justify">Unions are not seen by readers until the next publish. Each publish allocates a new epoch, O(n), since a reader
+ * may still be using the last one.</p>
+ * @author Heron Sanches
+ */
+public final class EpochUnion implements UnionI{
+   
+   private final int n;
+   
+   /**Writer side, only the writer thread uses it.*/
+   private final WeightedQuickUnionPathHalving forest;
+   
+   /**Unions between automatic publishes, 0 for none.*/
+   private final int publishEvery;
+   private int unpublished;
+   private volatile Epoch epoch;
+   
+   
+   /**It publishes only when {@linkplain #publish()} is called.*/
+   public EpochUnion(int n){
+      this(n, 0);
+   }
+   
+   
+   /**@param publishEvery the writer publishes by itself after this number of unions, 0 for only when {@linkplain #publish()} is
+    * called.*/
+   public EpochUnion(int n, int publishEvery){
+      
+      if(publishEvery < 0)
+         throw new IllegalArgumentException("publishEvery < 0");
+      
+      this.n = n;
+      this.forest = new WeightedQuickUnionPathHalving(n);
+      this.publishEvery = publishEvery;
+      publish();
+      
+   }
+   
+   
+   /**Writer thread only. It makes all the unions so far visible to the readers.*/
+   public void publish(){
+      
+      int roots[] = new int[n];
+      int sizes[] = new int[n];
+      
+      for(int i=0; i<n; i++){
+         
+         roots[i] = forest.root(i);
+         
+         if(roots[i] == i)
+            sizes[i] = forest.componentSize(i);
+         
+      }
+      
+      Epoch last = epoch;
+      epoch = new Epoch(last == null ? 0 : last.number + 1, roots, sizes, forest.count()); //volatile write, after the arrays are filled
+      unpublished = 0;
+      
+   }
+   
+   
+   /**@return the number of the last published epoch, 0 for the one made by the constructor.*/
+   public long epoch(){
+      return epoch.number;
+   }
+   
+   
+   /**Writer thread only. Readers see it after the next publish.*/
+   @Override
+   public void union(int p, int q){
+      
+      forest.union(p, q);
+      
+      if(publishEvery > 0 && ++unpublished == publishEvery)
+         publish();
+      
+   }
+   
+   
+   /**@return the root of p in the last published epoch.*/
+   @Override
+   public int find(int p){
+      return epoch.roots[p];
+   }
+   
+   
+   /**@return true if p and q were connected in the last published epoch.*/
+   @Override
+   public boolean connected(int p, int q){
+      
+      Epoch last = epoch; //one volatile read, both sites from the same epoch
+      return last.roots[p] == last.roots[q];
+      
+   }
+   
+   
+   /**@return number of components in the last published epoch.*/
+   @Override
+   public int count(){
+      return epoch.qttComponents;
+   }
+   
+   
+   /**@return number of sites of the component of p in the last published epoch.*/
+   @Override
+   public int componentSize(int p){
+      
+      Epoch last = epoch;
+      return last.sizes[last.roots[p]];
+      
+   }
+   
+   
+   /**It writes all components of the last published epoch.*/
+   @Override
+   public void exportComponents(Writer out) throws IOException {
+      Components.of(epoch.roots).write(out);
+   }
+   
+   
+   /**A published state, never changed after it is published, so the readers use it with no lock.*/
+   private static final class Epoch {
+      
+      private final long number;
+      
+      /**Root of each site.*/
+      private final int roots[];
+      
+      /**Number of sites of each component, only meaningful on the roots.*/
+      private final int sizes[];
+      private final int qttComponents;
+      
+      
+      private Epoch(long number, int roots[], int sizes[], int qttComponents){
+         
+         this.number = number;
+         this.roots = roots;
+         this.sizes = sizes;
+         this.qttComponents = qttComponents;
+         
+      }
+      
+      
+   }
+   
+   
+}
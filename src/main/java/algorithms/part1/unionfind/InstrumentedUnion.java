@@ -0,0 +1,245 @@
+package algorithms.part1.unionfind;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * <p align="justify">Decorator that measures any {@linkplain UnionI}: the number of operations, a histogram of the depth of the sites
+ * given to union and connected, and a latency histogram for each operation.</p>
+ * <p align="justify">The depths come from a probe: before a sampled operation, it walks again from p and from q to their roots through
+ * {@linkplain UnionI#find(int)}, and counts the hops. It is a second walk of the same paths, not the work of the wrapped algorithm: the
+ * probe hops of QuickFind are at most 1 per site, though each of its unions scans the whole array, and that cost is only seen in the union
+ * latency. The probe runs outside the timed call, and it does not change the forest, so it does not change the results of the wrapped
+ * algorithm, only slows it down, less when fewer operations are sampled. It is not thread-safe.</p>
+ * @author Heron Sanches
+ */
+public final class InstrumentedUnion implements UnionI, InstrumentedUnionMXBean {
+   
+   private final UnionI algorithm;
+   private final LogLinearHistogram depths = new LogLinearHistogram();
+   private final LogLinearHistogram unionLatencies = new LogLinearHistogram();
+   private final LogLinearHistogram connectedLatencies = new LogLinearHistogram();
+   
+   /**Operations between two probes.*/
+   private final int sampleEvery;
+   private long operations;
+   private long probes;
+   private long probeHops;
+   
+   
+   /**Every operation is probed.*/
+   public InstrumentedUnion(UnionI algorithm){
+      this(algorithm, 1);
+   }
+   
+   
+   /**@param sampleEvery only one operation in sampleEvery is probed, so the depths are a sample.*/
+   public InstrumentedUnion(UnionI algorithm, int sampleEvery){
+      
+      if(sampleEvery <= 0)
+         throw new IllegalArgumentException("sampleEvery <= 0");
+      
+      this.algorithm = algorithm;
+      this.sampleEvery = sampleEvery;
+      
+   }
+   
+   
+   /**It registers this object on the platform MBean server, as algorithms.part1.unionfind:type=InstrumentedUnion,name=[name].
+    * @return the registered name.*/
+   public ObjectName register(String name) throws JMException {
+      
+      ObjectName objectName = new ObjectName("algorithms.part1.unionfind:type=InstrumentedUnion,name="+ObjectName.quote(name));
+      ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+      return objectName;
+      
+   }
+   
+   
+   /**It probes p and q if this operation is sampled.*/
+   private void probe(int p, int q){
+      
+      if(operations++ % sampleEvery != 0)
+         return;
+      
+      probes++;
+      probe(p);
+      probe(q);
+      
+   }
+   
+   
+   /**It walks from p to its root and records the depth.*/
+   private void probe(int p){
+      
+      long depth = 0;
+      int parent;
+      
+      while( (parent = algorithm.find(p)) != p){
+         
+         p = parent;
+         depth++;
+         
+      }
+      
+      probeHops += depth;
+      depths.record(depth);
+      
+   }
+   
+   
+   @Override
+   public int find(int p){
+      return algorithm.find(p);
+   }
+   
+   
+   @Override
+   public boolean connected(int p, int q){
+      
+      probe(p, q);
+      long start = System.nanoTime();
+      boolean connected = algorithm.connected(p, q);
+      connectedLatencies.record(System.nanoTime() - start);
+      return connected;
+      
+   }
+   
+   
+   @Override
+   public void union(int p, int q){
+      
+      probe(p, q);
+      long start = System.nanoTime();
+      algorithm.union(p, q);
+      unionLatencies.record(System.nanoTime() - start);
+      
+   }
+   
+   
+   @Override
+   public int count(){
+      return algorithm.count();
+   }
+   
+   
+   @Override
+   public int componentSize(int p){
+      return algorithm.componentSize(p);
+   }
+   
+   
+   @Override
+   public void exportComponents(Writer out) throws IOException {
+      algorithm.exportComponents(out);
+   }
+   
+   
+   /**@return all the metrics, one per line.*/
+   public String report(){
+      
+      return "algorithm: "+getAlgorithm()+"\n"
+            +"unions: "+getUnions()+", connected: "+getConnectedQueries()+"\n"
+            +"probed operations: "+getProbedOperations()+" (1 in "+sampleEvery+", each one walks p and q again to their roots)\n"
+            +"probe hops: "+getProbeHops()+" ("+String.format("%.2f", getProbeHopsPerProbe())+" per probed operation)\n"
+            +"depth: mean "+String.format("%.2f", getMeanDepth())+", p99 "+getDepthP99()+", max "+getMaxDepth()+"\n"
+            +"union latency (ns): p50 "+getUnionLatencyP50()+", p99 "+getUnionLatencyP99()+", max "+getUnionLatencyMax()+"\n"
+            +"connected latency (ns): p50 "+getConnectedLatencyP50()+", p99 "+getConnectedLatencyP99()+", max "+getConnectedLatencyMax();
+      
+   }
+   
+   
+   @Override
+   public String getAlgorithm(){
+      return algorithm.getClass().getSimpleName();
+   }
+   
+   
+   @Override
+   public long getUnions(){
+      return unionLatencies.count();
+   }
+   
+   
+   @Override
+   public long getConnectedQueries(){
+      return connectedLatencies.count();
+   }
+   
+   
+   @Override
+   public long getProbedOperations(){
+      return probes;
+   }
+   
+   
+   @Override
+   public long getProbeHops(){
+      return probeHops;
+   }
+   
+   
+   @Override
+   public double getProbeHopsPerProbe(){
+      return probes == 0 ? 0 : (double) probeHops / probes;
+   }
+   
+   
+   @Override
+   public double getMeanDepth(){
+      return depths.mean();
+   }
+   
+   
+   @Override
+   public long getDepthP99(){
+      return depths.valueAtPercentile(99);
+   }
+   
+   
+   @Override
+   public long getMaxDepth(){
+      return depths.max();
+   }
+   
+   
+   @Override
+   public long getUnionLatencyP50(){
+      return unionLatencies.valueAtPercentile(50);
+   }
+   
+   
+   @Override
+   public long getUnionLatencyP99(){
+      return unionLatencies.valueAtPercentile(99);
+   }
+   
+   
+   @Override
+   public long getUnionLatencyMax(){
+      return unionLatencies.max();
+   }
+   
+   
+   @Override
+   public long getConnectedLatencyP50(){
+      return connectedLatencies.valueAtPercentile(50);
+   }
+   
+   
+   @Override
+   public long getConnectedLatencyP99(){
+      return connectedLatencies.valueAtPercentile(99);
+   }
+   
+   
+   @Override
+   public long getConnectedLatencyMax(){
+      return connectedLatencies.max();
+   }
+   
+   
+}
@@ -0,0 +1,26 @@
+package algorithms.part1.unionfind;
+
+/**
+ * <p align="justify">The metrics of an {@linkplain InstrumentedUnion}, as seen through JMX. Latencies are in nanoseconds, depths in
+ * links from a site to its root, counted by the probe of the sampled operations.</p>
+ * @author Heron Sanches
+ */
+public interface InstrumentedUnionMXBean {
+   
+   String getAlgorithm();
+   long getUnions();
+   long getConnectedQueries();
+   long getProbedOperations();
+   long getProbeHops();
+   double getProbeHopsPerProbe();
+   double getMeanDepth();
+   long getDepthP99();
+   long getMaxDepth();
+   long getUnionLatencyP50();
+   long getUnionLatencyP99();
+   long getUnionLatencyMax();
+   long getConnectedLatencyP50();
+   long getConnectedLatencyP99();
+   long getConnectedLatencyMax();
+   
+}
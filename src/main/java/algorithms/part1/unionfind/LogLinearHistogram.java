@@ -0,0 +1,97 @@
+package algorithms.part1.unionfind;
+
+/**
+ * <p align="justify">Histogram of non-negative long values (e.g. latencies in nanoseconds or tree depths) in the style of 
+ * HdrHistogram: values below {@value #LINEAR} are counted exactly, bigger values in buckets of {@value #SUB_BUCKETS} per power of two, 
+ * so any recorded value is reported with less than 1/{@value #SUB_BUCKETS} (about 3%) relative error, in a fixed array of about 2000 
+ * longs. It is not thread-safe.</p>
+ * @author Heron Sanches
+ */
+public final class LogLinearHistogram {
+   
+   private static final int SUB_BITS = 5;
+   private static final int SUB_BUCKETS = 1 << SUB_BITS;
+   private static final int LINEAR = SUB_BUCKETS << 1;
+   
+   private final long counts[] = new long[LINEAR + (64 - SUB_BITS - 1) * SUB_BUCKETS];
+   private long count;
+   private long sum;
+   private long max;
+   
+   
+   private static int index(long value){
+      
+      if(value < LINEAR)
+         return (int) value;
+      
+      int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS; //value >>> shift is from SUB_BUCKETS to LINEAR - 1
+      return LINEAR + (shift - 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+      
+   }
+   
+   
+   /**@return the highest value counted in the bucket.*/
+   private static long highestValue(int index){
+      
+      if(index < LINEAR)
+         return index;
+      
+      int shift = (index - LINEAR) / SUB_BUCKETS + 1;
+      long sub = (index - LINEAR) % SUB_BUCKETS + SUB_BUCKETS;
+      return ((sub + 1) << shift) - 1;
+      
+   }
+   
+   
+   /**@param value non-negative, negative values are counted as 0.*/
+   public void record(long value){
+      
+      value = Math.max(0, value);
+      counts[index(value)]++;
+      count++;
+      sum += value;
+      max = Math.max(max, value);
+      
+   }
+   
+   
+   public long count(){
+      return count;
+   }
+   
+   
+   public long max(){
+      return max;
+   }
+   
+   
+   public double mean(){
+      return count == 0 ? 0 : (double) sum / count;
+   }
+   
+   
+   /**@param percentile from 0 to 100.
+    * @return the value below or at which this percentage of the recorded values are, at the bucket precision.*/
+   public long valueAtPercentile(double percentile){
+      
+      if(count == 0)
+         return 0;
+      
+      long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+      long seen = 0;
+      
+      for(int i=0; i<counts.length; i++){
+         
+         seen += counts[i];
+         
+         if(seen >= rank)
+            return Math.min(highestValue(i), max);
+         
+      }
+      
+      return max;
+      
+   }
+   
+   
+}
@@ -0,0 +1,117 @@
+package algorithms.part1.unionfind;
+
+import java.util.Arrays;
+
+/**
+ * <p align="justify">Map from long keys to non-negative int values, with open addressing (linear probing) in primitive arrays, so 
+ * neither keys nor values are boxed. It never removes a key.</p>
+ * @author Heron Sanches
+ */
+public final class LongIntHashMap {
+   
+   private static final int EMPTY = -1;
+   
+   private long keys[];
+   
+   /**Value of each slot, {@value #EMPTY} if the slot is empty.*/
+   private int values[];
+   private int size;
+   private int mask;
+   
+   
+   public LongIntHashMap(int expectedSize){
+      
+      int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+      this.keys = new long[capacity];
+      this.values = new int[capacity];
+      this.mask = capacity - 1;
+      Arrays.fill(values, EMPTY);
+      
+   }
+   
+   
+   /**@return the slot of the key, or the empty slot where it would be.*/
+   private int slot(long key){
+      
+      int slot = hash(key) & mask;
+      
+      while(values[slot] != EMPTY && keys[slot] != key)
+         slot = (slot + 1) & mask;
+      
+      return slot;
+      
+   }
+   
+   
+   /**@return the 64 bits of the key mixed (murmur3 finalizer) into an int.*/
+   private static int hash(long key){
+      
+      key ^= key >>> 33;
+      key *= 0xff51afd7ed558ccdL;
+      key ^= key >>> 33;
+      key *= 0xc4ceb9fe1a85ec53L;
+      key ^= key >>> 33;
+      return (int) key;
+      
+   }
+   
+   
+   /**@return the value of the key, or -1 if there is no such key.*/
+   public int get(long key){
+      return values[slot(key)];
+   }
+   
+   
+   /**@param value non-negative.
+    * @return the value already kept for the key or, if there was none, the given value, that is now kept.*/
+   public int putIfAbsent(long key, int value){
+      
+      if(value < 0)
+         throw new IllegalArgumentException();
+      
+      int slot = slot(key);
+      
+      if(values[slot] != EMPTY)
+         return values[slot];
+      
+      keys[slot] = key;
+      values[slot] = value;
+      
+      if(++size * 2 > keys.length) //load factor 0.5
+         grow();
+      
+      return value;
+      
+   }
+   
+   
+   private void grow(){
+      
+      long oldKeys[] = keys;
+      int oldValues[] = values;
+      keys = new long[oldKeys.length * 2];
+      values = new int[oldValues.length * 2];
+      mask = keys.length - 1;
+      Arrays.fill(values, EMPTY);
+      
+      for(int i=0; i<oldKeys.length; i++){
+         
+         if(oldValues[i] != EMPTY){
+            
+            int slot = slot(oldKeys[i]);
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+            
+         }
+         
+      }
+      
+   }
+   
+   
+   public int size(){
+      return size;
+   }
+   
+   
+}
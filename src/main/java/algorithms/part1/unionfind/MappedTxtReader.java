@@ -0,0 +1,169 @@
+package algorithms.part1.unionfind;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ * <p align="justify">Reads the ints of a txt file (e.g. /txt/mediumUF.txt: the number of sites followed by pairs of sites) 
+ * straight from the memory-mapped file, without the per-token Strings and boxing of {@linkplain java.util.Scanner}. 
+ * The file is mapped in windows of {@value #WINDOW} bytes, so files bigger than 2GB can be read as well.</p>
+ * @author Heron Sanches
+ */
+public final class MappedTxtReader implements EdgeReaderI {
+   
+   private static final long WINDOW = 1 << 30;
+   
+   private final FileChannel channel;
+   private final long fileSize;
+   private long windowEnd;
+   private MappedByteBuffer buffer;
+   
+   /**Ints read so far, the number of sites included.*/
+   private long ints;
+   
+   
+   /**@param path a resource path, e.g., /txt/resourcePathFile.txt, or a file system path, see {@linkplain TxtUtils#resolvePath(String)}.*/
+   public MappedTxtReader(String path) throws IOException {
+      this(TxtUtils.resolvePath(path));
+   }
+   
+   
+   public MappedTxtReader(Path path) throws IOException {
+      
+      this.channel = FileChannel.open(path, StandardOpenOption.READ);
+      this.fileSize = channel.size();
+      this.windowEnd = 0;
+      
+      if(!nextWindow()) //empty file
+         buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, 0);
+      
+   }
+   
+   
+   /**Maps the next window of the file.
+    * @return false if the whole file was already read.*/
+   private boolean nextWindow() throws IOException {
+      
+      if(windowEnd >= fileSize)
+         return false;
+      
+      long size = Math.min(WINDOW, fileSize - windowEnd);
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, windowEnd, size);
+      windowEnd += size;
+      return true;
+      
+   }
+   
+   
+   /**It skips the white spaces.
+    * @return the next byte, without consuming it, or -1 at the end of the file.*/
+   private int peek() throws IOException {
+      
+      while(true){
+         
+         while(buffer.hasRemaining()){
+            
+            byte b = buffer.get(buffer.position());
+            
+            if(b != ' ' && b != '\n' && b != '\r' && b != '\t')
+               return b;
+            
+            buffer.position(buffer.position() + 1);
+            
+         }
+         
+         if(!nextWindow())
+            return -1;
+         
+      }
+      
+   }
+   
+   
+   /**@return true if there is another int to be read.*/
+   @Override
+   public boolean hasNext() throws IOException {
+      return peek() != -1;
+   }
+   
+   
+   /**@return the next int of the file.
+    * @throws NoSuchElementException if there is no other int.
+    * @throws InputMismatchException if the next token is not an int.*/
+   @Override
+   public int nextInt() throws IOException {
+      
+      int b = peek();
+      
+      if(b == -1)
+         throw new NoSuchElementException();
+      
+      boolean negative = b == '-';
+      
+      if(negative)
+         buffer.get();
+      
+      int value = 0;
+      int digits = 0;
+      
+      while(true){
+         
+         if(!buffer.hasRemaining() && !nextWindow())
+            break;
+         
+         b = buffer.get(buffer.position());
+         
+         if(b < '0' || b > '9')
+            break;
+         
+         if(value > (Integer.MAX_VALUE - (b - '0')) / 10)
+            throw new InputMismatchException("int out of range at byte "+(windowEnd - buffer.remaining()));
+         
+         value = value * 10 + (b - '0');
+         digits++;
+         buffer.position(buffer.position() + 1);
+         
+      }
+      
+      if(digits == 0 || (b != ' ' && b != '\n' && b != '\r' && b != '\t' && buffer.hasRemaining()))
+         throw new InputMismatchException("not an int at byte "+(windowEnd - buffer.remaining()));
+      
+      ints++;
+      return negative ? -value : value;
+      
+   }
+   
+   
+   /**It fills the batch with the next ints of the file, so pairs of sites are never split between two batches when the
+    * batch length is even.
+    * @return how many ints were read, less than batch.length only at the end of the file.
+    * @throws InputMismatchException if the file ends in the middle of a pair, the number of sites and an odd number of ints.*/
+   @Override
+   public int nextBatch(int batch[]) throws IOException {
+      
+      int size = 0;
+      
+      while(size < batch.length && hasNext())
+         batch[size++] = nextInt();
+      
+      if(size < batch.length && ints > 0 && (ints & 1) == 0)
+         throw new InputMismatchException("the file ends in the middle of a pair");
+      
+      return size;
+      
+   }
+   
+   
+   /**It closes the file.*/
+   @Override
+   public void close() throws IOException {
+      channel.close();
+   }
+   
+   
+}
@@ -0,0 +1,203 @@
+package algorithms.part1.unionfind;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.InputMismatchException;
+
+/**
+ * <p align="justify">Weighted quick union with path halving over a {@linkplain UnionSnapshot} mapped in memory, so connected queries
+ * work right after opening it, with no input to unite again. The file is mapped copy-on-write: unions after opening change only this
+ * process' pages, never the snapshot. If the file is not writable, it is mapped read-only instead: queries work the same (the
+ * snapshot is flat, so finds write nothing), but union throws ReadOnlyBufferException.</p>
+ * <p align="justify">The roots and sizes are mapped in windows of at most {@value UnionSnapshot#WINDOW_INTS} ints, like
+ * {@linkplain BinaryEdgeReader}, so a snapshot can have any number of sites.</p>
+ * @author Heron Sanches
+ */
+public final class MappedUnionFind implements UnionI{
+   
+   private static final int WINDOW_SHIFT = Integer.numberOfTrailingZeros(UnionSnapshot.WINDOW_INTS);
+   private static final int WINDOW_MASK = UnionSnapshot.WINDOW_INTS - 1;
+   
+   private final int n;
+   
+   /**The 2n ints after the header, the roots (data) and then the sizes (dataSizes), one window per {@value UnionSnapshot#WINDOW_INTS}
+    * ints.*/
+   private final IntBuffer windows[];
+   private final boolean writable;
+   private int qttComponents;
+   
+   
+   private MappedUnionFind(int n, int qttComponents, IntBuffer windows[], boolean writable){
+      
+      this.n = n;
+      this.qttComponents = qttComponents;
+      this.windows = windows;
+      this.writable = writable;
+      
+   }
+   
+   
+   /**@param file a snapshot written by {@linkplain UnionSnapshot#write(UnionI, int, Path)}, mapped read-only if it is not writable.*/
+   public static MappedUnionFind open(Path file) throws IOException {
+      
+      boolean writable = Files.isWritable(file);
+      
+      try(FileChannel channel = writable 
+            ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE) //copy-on-write needs both, the file is never written
+            : FileChannel.open(file, StandardOpenOption.READ)){
+         
+         if(channel.size() < UnionSnapshot.HEADER_BYTES)
+            throw new InputMismatchException(file+" is not a union-find snapshot");
+         
+         FileChannel.MapMode mode = writable ? FileChannel.MapMode.PRIVATE : FileChannel.MapMode.READ_ONLY;
+         ByteBuffer buffer = channel.map(mode, 0, UnionSnapshot.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+         
+         if(buffer.getInt(0) != UnionSnapshot.MAGIC)
+            throw new InputMismatchException(file+" is not a union-find snapshot");
+         
+         if(buffer.getInt(4) != UnionSnapshot.VERSION)
+            throw new InputMismatchException(file+": unsupported version "+buffer.getInt(4));
+         
+         int n = buffer.getInt(8);
+         long ints = 2L * n;
+         
+         if(n < 0 || channel.size() < UnionSnapshot.HEADER_BYTES + ints * Integer.BYTES)
+            throw new InputMismatchException(file+" is truncated");
+         
+         IntBuffer windows[] = new IntBuffer[(int) ((ints + WINDOW_MASK) >>> WINDOW_SHIFT)];
+         
+         for(int w=0; w<windows.length; w++){
+            
+            long from = (long) w << WINDOW_SHIFT;
+            long size = Math.min(UnionSnapshot.WINDOW_INTS, ints - from);
+            windows[w] = channel.map(mode, UnionSnapshot.HEADER_BYTES + from * Integer.BYTES, size * Integer.BYTES)
+                  .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            
+         }
+         
+         return new MappedUnionFind(n, buffer.getInt(12), windows, writable);
+         
+      }
+      
+   }
+   
+   
+   /**@return number of sites.*/
+   public int size(){
+      return n;
+   }
+   
+   
+   /**@param i index of an int after the header, the site p for its root, n + p for its size.*/
+   private int get(long i){
+      return windows[(int) (i >>> WINDOW_SHIFT)].get((int) i & WINDOW_MASK);
+   }
+   
+   
+   private void put(long i, int value){
+      windows[(int) (i >>> WINDOW_SHIFT)].put((int) i & WINDOW_MASK, value);
+   }
+   
+   
+   /**This method finds a site on data array (represents the components) and returns your value.
+    *@param p site.*/
+   @Override
+   public int find(int p){
+      return get(p);
+   }
+   
+   
+   /**@param p site, that is represented by an index element on data array, in this case the array represents a forest.
+    * @return the root of the tree - the array (data[]) index.*/
+   public int root(int p){
+      
+      int parent;
+      
+      while( (parent = get(p)) != p){
+         
+         int grandParent = get(parent);
+         
+         if(grandParent != parent && writable)
+            put(p, grandParent); //path halving, p points to its grandparent
+         
+         p = grandParent;
+         
+      }
+      
+      return p;
+      
+   }
+   
+   
+   /**@param p site, that is represented by an index element on data array.
+    * @param q site.
+    * @return true if the two sites are connected, otherwise returns false*/
+   @Override
+   public boolean connected(int p, int q){
+      return root(p) == root(q);
+   }
+   
+   
+   /**This method connect these two sites to the same component, those components now have the same root tree.
+    * @throws ReadOnlyBufferException if the snapshot was mapped read-only, see {@linkplain #open(Path)}.
+    * @param p: site, that is represented by an index element on data array.
+    * @param q: site.*/
+   @Override
+   public void union(int p, int q){
+
+      int pRoot = root(p);
+      int qRoot = root(q);
+      
+      if(pRoot == qRoot)
+         return;
+      
+      if(!writable)
+         throw new ReadOnlyBufferException();
+      
+      if(get(n + (long) pRoot) > get(n + (long) qRoot)){
+         
+         put(qRoot, pRoot); //q's root points to the p's root
+         put(n + (long) pRoot, get(n + (long) pRoot) + get(n + (long) qRoot));
+         
+      }else{
+         
+         put(pRoot, qRoot); //p's root points to the q's root
+         put(n + (long) qRoot, get(n + (long) qRoot) + get(n + (long) pRoot));
+         
+      }
+      
+      qttComponents--;
+      
+   }
+   
+   
+   /**@return number of components.*/
+   @Override
+   public int count(){
+      return qttComponents;
+   }
+   
+   
+   /**@return number of sites of the component of p.*/
+   @Override
+   public int componentSize(int p){
+      return get(n + (long) root(p));
+   }
+   
+   
+   /**It writes all components, grouped in linear time by {@linkplain Components}.*/
+   @Override
+   public void exportComponents(Writer out) throws IOException {
+      Components.of(this, n).write(out);
+   }
+   
+   
+}
@@ -0,0 +1,255 @@
+package algorithms.part1.unionfind;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p align="justify">Weighted (by rank) union-find with path halving for more than 2^31 sites, addressed by long site ids. Nothing is
+ * kept on the Java heap: the forest lives in segments of direct {@linkplain ByteBuffer}s (limited by -XX:MaxDirectMemorySize) or of a
+ * memory-mapped file, so the operating system pages it in and out and the GC never scans it.</p>
+ * <p align="justify">Each site takes 9 bytes: a long with parent + 1 (0 means the site is a root, so the zeroed memory of a new buffer 
+ * or file already is n components, there is no initialization pass) and a byte with the rank (6 bits) and two tag bits of the 
+ * component, kept on the root and merged by {@linkplain #union(long, long)}, e.g., "touches the top" / "touches the bottom" for 
+ * percolation.</p>
+ * @author Heron Sanches
+ */
+public final class OffHeapUnionFind implements Closeable {
+   
+   public static final int TAG_BITS = 2;
+   public static final int TAGS = (1 << TAG_BITS) - 1;
+   
+   private static final int SEGMENT_SHIFT = 27;
+   private static final long SEGMENT_SITES = 1L << SEGMENT_SHIFT;
+   private static final long SEGMENT_MASK = SEGMENT_SITES - 1;
+   
+   private final long n;
+   private final ByteBuffer parents[];
+   private final ByteBuffer ranks[];
+   private long qttComponents;
+   
+   
+   /**Direct buffers. Their memory is released by the GC once they are unreachable, after {@linkplain #close()} or with this object,
+    * never at once: Java 8 has no public way to free a direct buffer.
+    * @param n number of sites.*/
+   public OffHeapUnionFind(long n){
+      
+      this.n = checkSites(n);
+      int segments = segments(n);
+      this.parents = new ByteBuffer[segments];
+      this.ranks = new ByteBuffer[segments];
+      this.qttComponents = n;
+      
+      for(int i=0; i<segments; i++){
+         
+         long sites = segmentSites(i);
+         parents[i] = ByteBuffer.allocateDirect((int) sites * Long.BYTES).order(ByteOrder.nativeOrder());
+         ranks[i] = ByteBuffer.allocateDirect((int) sites);
+         
+      }
+      
+   }
+   
+   
+   /**Backed by a memory-mapped file, so the forest can be bigger than the RAM. The file is created (or truncated) with 9 * n bytes.
+    * @param n number of sites.
+    * @param file the file to be mapped.*/
+   public OffHeapUnionFind(long n, Path file) throws IOException {
+      
+      this.n = checkSites(n);
+      int segments = segments(n);
+      this.parents = new ByteBuffer[segments];
+      this.ranks = new ByteBuffer[segments];
+      this.qttComponents = n;
+      
+      try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, 
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+         
+         long position = 0;
+         
+         for(int i=0; i<segments; i++){ //the mappings stay valid after the channel is closed
+            
+            long sites = segmentSites(i);
+            parents[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, sites * Long.BYTES).order(ByteOrder.nativeOrder());
+            position += sites * Long.BYTES;
+            
+         }
+         
+         for(int i=0; i<segments; i++){
+            
+            long sites = segmentSites(i);
+            ranks[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, sites);
+            position += sites;
+            
+         }
+         
+      }
+      
+   }
+   
+   
+   private static long checkSites(long n){
+      
+      if(n <= 0)
+         throw new IllegalArgumentException();
+      
+      return n;
+      
+   }
+   
+   
+   private static int segments(long n){
+      return (int) ((n + SEGMENT_SITES - 1) >>> SEGMENT_SHIFT);
+   }
+   
+   
+   private long segmentSites(int segment){
+      return Math.min(SEGMENT_SITES, n - ((long) segment << SEGMENT_SHIFT));
+   }
+   
+   
+   /**@return the parent of the site, or the site itself if it is a root.*/
+   public long find(long p){
+      
+      long value = parents[(int) (p >>> SEGMENT_SHIFT)].getLong((int) (p & SEGMENT_MASK) << 3);
+      return value == 0 ? p : value - 1;
+      
+   }
+   
+   
+   private void setParent(long p, long parent){
+      parents[(int) (p >>> SEGMENT_SHIFT)].putLong((int) (p & SEGMENT_MASK) << 3, parent + 1);
+   }
+   
+   
+   /**@return rank << TAG_BITS | tags, only meaningful on the roots.*/
+   private int rankAndTags(long p){
+      return ranks[(int) (p >>> SEGMENT_SHIFT)].get((int) (p & SEGMENT_MASK)) & 0xFF;
+   }
+   
+   
+   private void setRankAndTags(long p, int value){
+      ranks[(int) (p >>> SEGMENT_SHIFT)].put((int) (p & SEGMENT_MASK), (byte) value);
+   }
+   
+   
+   /**@param p site, from 0 to n-1.
+    * @return the root of the tree.*/
+   public long root(long p){
+      
+      if(p < 0 || p >= n)
+         throw new IndexOutOfBoundsException(String.valueOf(p));
+      
+      long parent;
+      
+      while( (parent = find(p)) != p){
+         
+         long grandParent = find(parent);
+         
+         if(grandParent != parent)
+            setParent(p, grandParent); //path halving, p points to its grandparent
+         
+         p = grandParent;
+         
+      }
+      
+      return p;
+      
+   }
+   
+   
+   /**@return true if the two sites are connected, otherwise returns false*/
+   public boolean connected(long p, long q){
+      return root(p) == root(q);
+   }
+   
+   
+   /**This method connect these two sites to the same component, merging the tags of both components.*/
+   public void union(long p, long q){
+      
+      long pRoot = root(p);
+      long qRoot = root(q);
+      
+      if(pRoot == qRoot)
+         return;
+      
+      int pValue = rankAndTags(pRoot);
+      int qValue = rankAndTags(qRoot);
+      int pRank = pValue >>> TAG_BITS;
+      int qRank = qValue >>> TAG_BITS;
+      int tags = (pValue | qValue) & TAGS;
+      
+      if(pRank < qRank){
+         
+         setParent(pRoot, qRoot); //p's root points to the q's root
+         setRankAndTags(qRoot, qRank << TAG_BITS | tags);
+         
+      }else{
+         
+         setParent(qRoot, pRoot); //q's root points to the p's root
+         setRankAndTags(pRoot, (pRank == qRank ? pRank + 1 : pRank) << TAG_BITS | tags);
+         
+      }
+      
+      qttComponents--;
+      
+   }
+   
+   
+   /**@return the tags of the site's component.*/
+   public int tags(long p){
+      return rankAndTags(root(p)) & TAGS;
+   }
+   
+   
+   /**It adds tags to the site's component.
+    * @param tags bits from {@value #TAGS}.*/
+   public void tag(long p, int tags){
+      
+      long root = root(p);
+      setRankAndTags(root, rankAndTags(root) | (tags & TAGS));
+      
+   }
+   
+   
+   /**@return number of sites.*/
+   public long size(){
+      return n;
+   }
+   
+   
+   /**@return number of components.*/
+   public long count(){
+      return qttComponents;
+   }
+   
+   
+   /**It writes the memory-mapped segments back to the file, if this union-find is backed by one, and drops the references to the
+    * segments, so the GC can release them (direct memory or mappings) even if this object is still reachable. It can not be used
+    * after that.*/
+   @Override
+   public void close(){
+      
+      for(int i=0; i<parents.length; i++){
+         
+         if(parents[i] instanceof MappedByteBuffer){
+            
+            ((MappedByteBuffer) parents[i]).force();
+            ((MappedByteBuffer) ranks[i]).force();
+            
+         }
+         
+         parents[i] = null;
+         ranks[i] = null;
+         
+      }
+      
+   }
+   
+   
+}
@@ -0,0 +1,120 @@
+package algorithms.part1.unionfind;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * <p align="justify">Bulk union of a whole edge list on a fork-join pool. The pairs are split in chunks, every worker unites its
+ * chunk into a private {@linkplain WeightedQuickUnionPathCompression} (so there is no sharing between workers), and the partial
+ * forests are merged pairwise: each link p → parent of the right forest becomes a union(p, parent) on the left one.</p>
+ * <p align="justify">A merge costs O(n), so it only pays off when there are many more pairs than sites; the chunks are as big as
+ * needed to have about one chunk per worker.</p>
+ * @author Heron Sanches
+ */
+public final class ParallelUnion extends RecursiveTask<WeightedQuickUnionPathCompression> {
+   
+   private static final long serialVersionUID = 1L;
+   
+   /**Smallest chunk, in pairs, worth a private forest.*/
+   private static final int MIN_CHUNK = 1 << 16;
+   
+   private final int n;
+   private final int pairs[];
+   private final int from;
+   private final int to;
+   private final int chunk;
+   
+   
+   /**@param pairs pairs of sites, p at even indexes and q at odd indexes, from the index from (inclusive) to to (exclusive),
+    * both in pairs, not in ints.*/
+   private ParallelUnion(int n, int pairs[], int from, int to, int chunk){
+      
+      this.n = n;
+      this.pairs = pairs;
+      this.from = from;
+      this.to = to;
+      this.chunk = chunk;
+      
+   }
+   
+   
+   /**@param n number of sites.
+    * @param pairs pairs of sites, p at even indexes and q at odd indexes.
+    * @param length how many ints of pairs are used, even.
+    * @param pool the workers.
+    * @return the union of all pairs.*/
+   public static WeightedQuickUnionPathCompression union(int n, int pairs[], int length, ForkJoinPool pool){
+      
+      int count = length / 2;
+      int chunk = Math.max(MIN_CHUNK, (count + pool.getParallelism() - 1) / pool.getParallelism());
+      return pool.invoke(new ParallelUnion(n, pairs, 0, count, chunk));
+      
+   }
+   
+   
+   /**It reads the whole input (the pairs, after the number of sites) and unites it on the common pool.
+    * @param n number of sites, already read from the input.*/
+   public static WeightedQuickUnionPathCompression union(int n, EdgeReaderI input) throws IOException {
+      
+      int batch[] = new int[UnionMain.BATCH];
+      int pairs[] = new int[UnionMain.BATCH];
+      int length = 0;
+      int size;
+      
+      while((size = input.nextBatch(batch)) > 0){
+         
+         if(length + size > pairs.length)
+            pairs = Arrays.copyOf(pairs, pairs.length * 2);
+         
+         System.arraycopy(batch, 0, pairs, length, size);
+         length += size;
+         
+      }
+      
+      return union(n, pairs, length, ForkJoinPool.commonPool());
+      
+   }
+   
+   
+   @Override
+   protected WeightedQuickUnionPathCompression compute(){
+      
+      if(to - from <= chunk){
+         
+         WeightedQuickUnionPathCompression forest = new WeightedQuickUnionPathCompression(n);
+         
+         for(int i=from; i<to; i++)
+            forest.union(pairs[2*i], pairs[2*i+1]);
+         
+         return forest;
+         
+      }
+      
+      int middle = (from + to) >>> 1;
+      ParallelUnion right = new ParallelUnion(n, pairs, middle, to, chunk);
+      right.fork();
+      WeightedQuickUnionPathCompression forest = new ParallelUnion(n, pairs, from, middle, chunk).compute();
+      merge(forest, right.join());
+      return forest;
+      
+   }
+   
+   
+   /**It adds every link of the source forest to the target one.*/
+   private void merge(WeightedQuickUnionPathCompression target, WeightedQuickUnionPathCompression source){
+      
+      int parent;
+      
+      for(int p=0; p<n; p++){
+         
+         if( (parent = source.find(p)) != p)
+            target.union(p, parent);
+         
+      }
+      
+   }
+   
+   
+}
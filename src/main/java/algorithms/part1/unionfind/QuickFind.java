@@ -1,5 +1,8 @@
 package algorithms.part1.unionfind;
 
+import java.io.IOException;
+import java.io.Writer;
+
 /**
  *
  * @author Heron Sanches
@@ -8,6 +11,9 @@ public final class QuickFind implements UnionI{
    
    private final int n;
    private final int data[];
+   
+   /**Number of sites of each component, indexed by the component value (data[p]).*/
+   private final int dataSizes[];
    private int qttComponents;
 
    
@@ -15,10 +21,15 @@ public final class QuickFind implements UnionI{
       
       this.n = n;
       this.data = new int[n];
+      this.dataSizes = new int[n];
       this.qttComponents = n;
       
-      for(int i=0; i<n; i++)
+      for(int i=0; i<n; i++){
+         
          data[i] = i;
+         dataSizes[i] = 1;
+         
+      }
       
    }
    
@@ -57,42 +68,30 @@ public final class QuickFind implements UnionI{
             data[i] = qv;
       }
       
+      dataSizes[qv] += dataSizes[pv];
       qttComponents--;
       
    }
    
    
-   /**It prints all components.*/
+   /**@return number of components.*/
    @Override
-   public void printComponents(){
-               
-      boolean empty;
-      String component;
-      
-      for(int i=0; i<data.length; i++){
-         
-         component = "";
-         empty = true;
-         
-         for(int j=0; j<data.length; j++){ //print one component
-            
-            if(data[j] == i){
-               
-               component += "-"+j;
-               empty = false;
-               
-            }
-            
-         }
-         
-         if(!empty)
-            System.out.println(component.substring(1, component.length())+"\n");
-         
-      }
-      
-      System.out.println();
-      System.out.println(qttComponents+" components.");
-      
+   public int count(){
+      return qttComponents;
+   }
+   
+   
+   /**@return number of sites of the component of p.*/
+   @Override
+   public int componentSize(int p){
+      return dataSizes[data[p]];
+   }
+   
+   
+   /**It writes all components, grouped in linear time by {@linkplain Components}.*/
+   @Override
+   public void exportComponents(Writer out) throws IOException {
+      Components.of(this, n).write(out);
    }
    
    
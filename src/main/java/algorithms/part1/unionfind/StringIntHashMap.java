@@ -0,0 +1,121 @@
+package algorithms.part1.unionfind;
+
+import java.util.Arrays;
+
+/**
+ * <p align="justify">Map from String keys to non-negative int values, with open addressing (linear probing) in arrays. The keys are
+ * kept as they are, but the values are never boxed and the hash of each key is cached, so probing compares ints before Strings.
+ * It never removes a key.</p>
+ * @author Heron Sanches
+ */
+public final class StringIntHashMap {
+   
+   private static final int EMPTY = -1;
+   
+   private String keys[];
+   private int hashes[];
+   
+   /**Value of each slot, {@value #EMPTY} if the slot is empty.*/
+   private int values[];
+   private int size;
+   private int mask;
+   
+   
+   public StringIntHashMap(int expectedSize){
+      
+      int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+      this.keys = new String[capacity];
+      this.hashes = new int[capacity];
+      this.values = new int[capacity];
+      this.mask = capacity - 1;
+      Arrays.fill(values, EMPTY);
+      
+   }
+   
+   
+   /**@return the slot of the key, or the empty slot where it would be.*/
+   private int slot(String key, int hash){
+      
+      int slot = hash & mask;
+      
+      while(values[slot] != EMPTY && (hashes[slot] != hash || !keys[slot].equals(key)))
+         slot = (slot + 1) & mask;
+      
+      return slot;
+      
+   }
+   
+   
+   /**@return the String hash spread over the low bits, which pick the slot.*/
+   private static int hash(String key){
+      
+      int h = key.hashCode() * 0x9E3779B9;
+      return h ^ (h >>> 16);
+      
+   }
+   
+   
+   /**@return the value of the key, or -1 if there is no such key.*/
+   public int get(String key){
+      return values[slot(key, hash(key))];
+   }
+   
+   
+   /**@param value non-negative.
+    * @return the value already kept for the key or, if there was none, the given value, that is now kept.*/
+   public int putIfAbsent(String key, int value){
+      
+      if(value < 0)
+         throw new IllegalArgumentException();
+      
+      int hash = hash(key);
+      int slot = slot(key, hash);
+      
+      if(values[slot] != EMPTY)
+         return values[slot];
+      
+      keys[slot] = key;
+      hashes[slot] = hash;
+      values[slot] = value;
+      
+      if(++size * 2 > keys.length) //load factor 0.5
+         grow();
+      
+      return value;
+      
+   }
+   
+   
+   private void grow(){
+      
+      String oldKeys[] = keys;
+      int oldHashes[] = hashes;
+      int oldValues[] = values;
+      keys = new String[oldKeys.length * 2];
+      hashes = new int[oldHashes.length * 2];
+      values = new int[oldValues.length * 2];
+      mask = keys.length - 1;
+      Arrays.fill(values, EMPTY);
+      
+      for(int i=0; i<oldKeys.length; i++){
+         
+         if(oldValues[i] != EMPTY){
+            
+            int slot = slot(oldKeys[i], oldHashes[i]);
+            keys[slot] = oldKeys[i];
+            hashes[slot] = oldHashes[i];
+            values[slot] = oldValues[i];
+            
+         }
+         
+      }
+      
+   }
+   
+   
+   public int size(){
+      return size;
+   }
+   
+   
+}
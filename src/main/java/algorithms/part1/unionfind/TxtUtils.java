@@ -2,6 +2,8 @@ package algorithms.part1.unionfind;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Scanner;
 import java.util.logging.Level;
@@ -29,6 +31,28 @@ public final class TxtUtils {
    }
       
    
+   /**@param path a path under /src/main/resources/, e.g., /txt/resourcePathFile.txt, or, if there is no such resource, a
+    * path on the file system, e.g., /data/hugeUF.txt.
+    * @return the path of the resource, or the file system path.*/
+   public static Path resolvePath(String path){
+      
+      URL resource = TxtUtils.class.getResource(path);
+      
+      if(resource != null && "file".equals(resource.getProtocol())){
+         
+         try {
+            return Paths.get(resource.toURI());
+         } catch (URISyntaxException ex) {
+            Logger.getLogger(TxtUtils.class.getName()).log(Level.SEVERE, null, ex);
+         }
+         
+      }
+      
+      return Paths.get(path);
+      
+   }
+   
+   
    /**
     * @return a opened input txt file, Scanner, ready to be read. Otherwise it will return null.*/
    public Scanner getInput(){
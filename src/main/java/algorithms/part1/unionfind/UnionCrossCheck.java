@@ -0,0 +1,88 @@
+package algorithms.part1.unionfind;
+
+import java.util.SplittableRandom;
+
+/**
+ * <p align="justify">Runs the same random workload (unions and connected queries, half each) on several {@linkplain UnionI}
+ * implementations and checks that every connected query gets the same answer from all of them.</p>
+ * @author Heron Sanches
+ */
+public final class UnionCrossCheck {
+   
+   
+   private UnionCrossCheck(){}
+   
+   
+   /**Execution: <br>
+    * mvn exec:java -Dexec.mainClass="algorithms.part1.unionfind.UnionCrossCheck" -Dexec.args="[0] [1] [2] [3]"
+    * @param args [0]: algorithms, separated by commas, as accepted by {@linkplain UnionMain#newAlgorithm(String, int)}, 
+    * e.g., WQUPH,WQUPC,CUF <br>
+    * [1]: number of sites <br>
+    * [2]: number of operations <br>
+    * [3]: seed (optional)*/
+   public static void main(String[] args){
+      
+      String names[] = args[0].split(",");
+      int n = Integer.parseInt(args[1]);
+      long operations = Long.parseLong(args[2]);
+      long seed = args.length > 3 ? Long.parseLong(args[3]) : new SplittableRandom().nextLong();
+      
+      long mismatches = check(names, n, operations, seed);
+      System.out.println(operations+" operations on "+n+" sites, seed "+seed+": "+(mismatches == 0 ? "all answers match" : mismatches+" mismatches"));
+      
+      if(mismatches != 0)
+         System.exit(1);
+      
+   }
+   
+   
+   /**@return how many connected queries did not get the same answer from all the algorithms.*/
+   public static long check(String names[], int n, long operations, long seed){
+      
+      UnionI algorithms[] = new UnionI[names.length];
+      
+      for(int i=0; i<names.length; i++){
+         
+         algorithms[i] = UnionMain.newAlgorithm(names[i], n);
+         
+         if(algorithms[i] == null)
+            throw new IllegalArgumentException("unknown algorithm: "+names[i]);
+         
+      }
+      
+      SplittableRandom random = new SplittableRandom(seed);
+      long mismatches = 0;
+      int p;
+      int q;
+      
+      for(long op=0; op<operations; op++){
+         
+         p = random.nextInt(n);
+         q = random.nextInt(n);
+         
+         if(random.nextBoolean()){
+            
+            for(UnionI algorithm : algorithms)
+               algorithm.union(p, q);
+            
+         }else{
+            
+            boolean expected = algorithms[0].connected(p, q);
+            
+            for(int i=1; i<algorithms.length; i++){
+               
+               if(algorithms[i].connected(p, q) != expected)
+                  mismatches++;
+               
+            }
+            
+         }
+         
+      }
+      
+      return mismatches;
+      
+   }
+   
+   
+}
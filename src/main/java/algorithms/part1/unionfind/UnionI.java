@@ -1,5 +1,11 @@
 package algorithms.part1.unionfind;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
 /**
  *
  * @author Heron Sanches
@@ -9,6 +15,31 @@ public interface UnionI {
    int find(int p);
    boolean connected(int p, int q);
    void union(int p, int q);
-   void printComponents();
    
-}
\ No newline at end of file
+   /**@return number of components.*/
+   int count();
+   
+   /**@return number of sites of the component of p.*/
+   int componentSize(int p);
+   
+   /**It writes all components, see {@linkplain Components#write(Writer)}.*/
+   void exportComponents(Writer out) throws IOException;
+   
+   
+   /**It prints all components.*/
+   default void printComponents(){
+      
+      try{
+         
+         Writer out = new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16);
+         exportComponents(out);
+         out.flush(); //System.out stays open
+         
+      }catch(IOException ex){
+         throw new UncheckedIOException(ex);
+      }
+      
+   }
+   
+   
+}
@@ -1,6 +1,10 @@
 package algorithms.part1.unionfind;
 
-import java.util.Scanner;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
 
 /**
  *
@@ -8,47 +12,153 @@ import java.util.Scanner;
  */
 public class UnionMain {
    
+   /**How many ints are read from the input at once, even, so a pair of sites is never split between two batches.*/
+   static final int BATCH = 1 << 13;
+   
+   /**Parallel bulk union, see {@linkplain ParallelUnion}.*/
+   private static final String PARALLEL = "PWQUPC";
+   
+   /**Snapshot reopened, see {@linkplain MappedUnionFind}.*/
+   private static final String SNAPSHOT = "SNAP";
+   
+   /**Algorithm picked by the input, see {@linkplain AdaptiveUnion}.*/
+   private static final String AUTO = "AUTO";
+   
    
    /**Execution: <br>
     * 1 - mvn clean package <br>
-    * 2 - mvn exec:java -Dexec.mainClass="algorithms.part1.unionfind.UnionMain" -Dexec.args="[0] [1]"
-    * @param args [0]: QF({@linkplain QuickFind}), QU({@linkplain QuickUnion}) <br>
-    * [1]: path under /src/main/resources/, e.g., /txt/resourcePathFile.txt, without the "/src/main/resources/"
+    * 2 - mvn exec:java -Dexec.mainClass="algorithms.part1.unionfind.UnionMain" -Dexec.args="[0] [1]" [-Dunion.snapshot=file.ufs] [-Dunion.instrument=true] [-Dunion.instrument.sample=64]
+    * @param args [0]: QF({@linkplain QuickFind}), WQF({@linkplain WeightedQuickFind}), QU({@linkplain QuickUnion}), 
+    * WQU({@linkplain WeightedQuickUnion}),
+    * WQUPC({@linkplain WeightedQuickUnionPathCompression}), WQUPH({@linkplain WeightedQuickUnionPathHalving}),
+    * CWQU({@linkplain CompactWeightedQuickUnion}), CUF({@linkplain ConcurrentUnionFind}), 
+    * PWQUPC(the whole input united in parallel by {@linkplain ParallelUnion}), 
+    * SNAP(a snapshot reopened by {@linkplain MappedUnionFind}, nothing is united), 
+    * AUTO(picked, and changed if needed, by {@linkplain AdaptiveUnion}, from the number of sites and the size of the input) <br>
+    * [1]: path under /src/main/resources/, e.g., /txt/resourcePathFile.txt, without the "/src/main/resources/", or a file system path.
+    * Files ending with {@value BinaryEdgeReader#EXTENSION} are read as binary, see {@linkplain BinaryEdgeConverter}. For SNAP, the 
+    * snapshot file. <br>
+    * union.snapshot: if set, the components are written to this file at the end, see {@linkplain UnionSnapshot} <br>
+    * union.instrument: if true, the algorithm is measured by {@linkplain InstrumentedUnion} (also through JMX), and the metrics are 
+    * printed at the end. Not for PWQUPC and SNAP <br>
+    * union.instrument.sample: with union.instrument, only one operation in this number is probed for depths, 1 by default
    */
-   public static void main(String[] args) {
+   public static void main(String[] args) throws IOException {
+      
+      UnionI algorithm;
+      int n;
+      
+      if(SNAPSHOT.equals(args[0])){
+         
+         MappedUnionFind snapshot = MappedUnionFind.open(TxtUtils.resolvePath(args[1]));
+         algorithm = snapshot;
+         n = snapshot.size();
+         
+      }else{
+         
+         try(EdgeReaderI input = EdgeReaderI.open(args[1])){
+
+            n = input.nextInt();
+
+            if(PARALLEL.equals(args[0])){
+
+               algorithm = ParallelUnion.union(n, input);
+
+            }else{
+
+               algorithm = AUTO.equals(args[0]) 
+                     ? AdaptiveUnion.forInput(n, TxtUtils.resolvePath(args[1]), 0) //only unions
+                     : newAlgorithm(args[0], n);
+               
+               if(Boolean.getBoolean("union.instrument"))
+                  algorithm = instrument(algorithm, args[0]);
+               
+               int batch[] = new int[BATCH];
+               int size;
+
+               while((size = input.nextBatch(batch)) > 0){
+
+                  for(int i=0; i<size; i+=2)
+                     algorithm.union(batch[i], batch[i+1]);
+
+               }
+
+            }
+
+         }
+         
+      }
+      
+      String snapshotFile = System.getProperty("union.snapshot");
+      
+      if(snapshotFile != null)
+         UnionSnapshot.write(algorithm, n, Paths.get(snapshotFile));
       
-      TxtUtils txtUtils = new TxtUtils(args[1]);
-      Scanner input = txtUtils.getInput();
-      UnionI algorithm = null;
+      if(algorithm instanceof InstrumentedUnion)
+         System.out.println(((InstrumentedUnion) algorithm).report());
       
-      switch(args[0]){
+      /*algorithm.printComponents();
+      System.out.println();*/
+      
+   }
+   
+   
+   /**It wraps the algorithm in an {@linkplain InstrumentedUnion}, also published through JMX.*/
+   private static UnionI instrument(UnionI algorithm, String name){
+      
+      InstrumentedUnion instrumented = new InstrumentedUnion(algorithm, Integer.getInteger("union.instrument.sample", 1));
+      
+      try{
+         instrumented.register(name);
+      }catch(JMException ex){
+         Logger.getLogger(UnionMain.class.getName()).log(Level.WARNING, "metrics not published through JMX", ex);
+      }
+      
+      return instrumented;
+      
+   }
+   
+   
+   /**@param name QF, WQF, QU, WQU, WQUPC, WQUPH, CWQU, CUF or AUTO (nothing known about the input, see 
+    * {@linkplain AdaptiveUnion#AdaptiveUnion(int)}), the same names accepted by {@linkplain #main(String[])}.
+    * @param n number of sites.
+    * @return a new algorithm with n sites, or null if the name is unknown.*/
+   public static UnionI newAlgorithm(String name, int n){
+      
+      switch(name){
          
          case "QF": //Quick Find
-            algorithm = new QuickFind(input.nextInt());
-         break;
+            return new QuickFind(n);
+         
+         case "WQF": //Weighted Quick Find, member lists
+            return new WeightedQuickFind(n);
          
          case "QU": //Quick Union
-            algorithm = new QuickUnion(input.nextInt());
-         break;
+            return new QuickUnion(n);
          
          case "WQU"://Weighted Quick Union
-            algorithm = new WeightedQuickUnion(input.nextInt());
-         break;
+            return new WeightedQuickUnion(n);
          
          case "WQUPC": //Weighted Quick Union Path Compressed
-            algorithm = new WeightedQuickUnionPathCompression(input.nextInt());
-         break;
+            return new WeightedQuickUnionPathCompression(n);
+         
+         case "WQUPH": //Weighted Quick Union Path Halving
+            return new WeightedQuickUnionPathHalving(n);
+         
+         case "CWQU": //Compact Weighted Quick Union, one array
+            return new CompactWeightedQuickUnion(n);
+         
+         case "CUF": //Concurrent (lock-free) Union-Find
+            return new ConcurrentUnionFind(n);
+         
+         case AUTO: //picked by the operations
+            return new AdaptiveUnion(n);
          
       }
       
-      while(input.hasNext())
-         algorithm.union(input.nextInt(), input.nextInt()); 
-
-      txtUtils.closeInput();
-      /*algorithm.printComponents();
-      System.out.println();*/
+      return null;
       
    }
    
    
-}
\ No newline at end of file
+}
@@ -0,0 +1,81 @@
+package algorithms.part1.unionfind;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p align="justify">Snapshot of the components of a {@linkplain UnionI}, to be reopened with {@linkplain MappedUnionFind} instead 
+ * of uniting the whole input again. All little-endian:</p>
+ * <ul>
+ * <li>int magic, {@value #MAGIC} ("UFS1");</li>
+ * <li>int version, {@value #VERSION};</li>
+ * <li>int number of sites, n;</li>
+ * <li>int number of components;</li>
+ * <li>n ints, the root of each site (the trees are written flat, so a reopened snapshot finds any root in one step);</li>
+ * <li>n ints, the size of each tree on its root, 0 on the other sites.</li>
+ * </ul>
+ * @author Heron Sanches
+ */
+public final class UnionSnapshot {
+   
+   public static final String EXTENSION = ".ufs";
+   public static final int MAGIC = 0x31534655;
+   public static final int VERSION = 1;
+   public static final int HEADER_BYTES = 16;
+   
+   
+   private UnionSnapshot(){}
+   
+   
+   /**Ints mapped at once, 1GB.*/
+   static final int WINDOW_INTS = 1 << 28;
+   
+   
+   /**It writes the snapshot of the algorithm's components.
+    * @param n number of sites of the algorithm.*/
+   public static void write(UnionI algorithm, int n, Path file) throws IOException {
+      
+      int roots[] = Components.roots(algorithm, n);
+      int sizes[] = new int[n];
+      int components = 0;
+      
+      for(int i=0; i<n; i++){
+         
+         if(roots[i] == i)
+            components++;
+         
+         sizes[roots[i]]++; //only roots are counted, the other sites stay 0
+         
+      }
+      
+      try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, 
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+         
+         channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+               .putInt(0, MAGIC).putInt(4, VERSION).putInt(8, n).putInt(12, components);
+         write(channel, HEADER_BYTES, roots);
+         write(channel, HEADER_BYTES + (long) n * Integer.BYTES, sizes);
+         
+      }
+      
+   }
+   
+   
+   /**It writes the ints from the byte offset on, one window at a time, so no mapping is bigger than {@value #WINDOW_INTS} ints.*/
+   private static void write(FileChannel channel, long offset, int values[]) throws IOException {
+      
+      for(long from=0; from<values.length; from+=WINDOW_INTS){ //long, so it can not wrap past Integer.MAX_VALUE
+         
+         int size = (int) Math.min(WINDOW_INTS, values.length - from);
+         channel.map(FileChannel.MapMode.READ_WRITE, offset + from * Integer.BYTES, (long) size * Integer.BYTES)
+               .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().put(values, (int) from, size);
+         
+      }
+      
+   }
+   
+   
+}
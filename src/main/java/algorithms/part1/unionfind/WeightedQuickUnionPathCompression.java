@@ -1,10 +1,7 @@
 package algorithms.part1.unionfind;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
+import java.io.IOException;
+import java.io.Writer;
 
 /**
  *
@@ -76,20 +73,21 @@ public class WeightedQuickUnionPathCompression implements UnionI{
    @Override
    public void union(int p, int q){
 
-      if(connected(p, q))
+      int pRoot = root(p);
+      int qRoot = root(q);
+      
+      if(pRoot == qRoot)
          return;
       
-      if(dataSizes[p] > dataSizes[q]){
+      if(dataSizes[pRoot] > dataSizes[qRoot]){ //the sizes of the trees are kept on their roots
          
-         data[root(q)] = root(p); //q's root points to the p's root
-         dataSizes[p] += dataSizes[q];
-         dataSizes[q] = dataSizes[p];
+         data[qRoot] = pRoot; //q's root points to the p's root
+         dataSizes[pRoot] += dataSizes[qRoot];
          
       }else{
          
-         data[root(p)] = root(q); //p's root points to the q's root
-         dataSizes[p] += dataSizes[q];
-         dataSizes[q] = dataSizes[p];
+         data[pRoot] = qRoot; //p's root points to the q's root
+         dataSizes[qRoot] += dataSizes[pRoot];
          
       }
       
@@ -98,57 +96,24 @@ public class WeightedQuickUnionPathCompression implements UnionI{
    }
    
    
-   /**It prints all components.*/
+   /**@return number of components.*/
    @Override
-   public void printComponents(){
-      
-      /**Map<root, treeElements>*/
-      Map<Integer,List<Integer>> forest = new HashMap<>();
-      int root;
-      
-      for(int i=0; i<data.length; i++){
-         
-         root = root(i);
-         
-         if(!forest.containsKey(root)){//not contains this tree elements list
-            
-            forest.put(root, new ArrayList());
-            forest.get(root).add(i);
-            
-         }else{ //add the element to the existent tree elements list
-            forest.get(root).add(i);
-         }
-         
-      }
-      
-      Iterator<List<Integer>> it = forest.values().iterator();
-      String component;
-
-      while(it.hasNext()){
-
-         component = "";
-
-         for(Integer el : it.next())
-            component += ("-"+el);
-
-         System.out.println(component.substring(1, component.length()));
-         System.out.println();
-
-      }
-      
-      String array = "";
-      String arrayValues = "";
-      
-      for(int i=0; i<data.length; i++){
-         
-         array += i+"   ";
-         arrayValues += data[i]+"   ";
-         
-      }
-      
-      System.out.printf("%s\n%s\n", array, arrayValues);
-      System.out.println(qttComponents+" components.");
-      
+   public int count(){
+      return qttComponents;
+   }
+   
+   
+   /**@return number of sites of the component of p.*/
+   @Override
+   public int componentSize(int p){
+      return dataSizes[root(p)];
+   }
+   
+   
+   /**It writes all components, grouped in linear time by {@linkplain Components}.*/
+   @Override
+   public void exportComponents(Writer out) throws IOException {
+      Components.of(this, n).write(out);
    }
    
    
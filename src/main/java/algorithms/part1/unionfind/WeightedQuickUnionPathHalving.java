@@ -0,0 +1,123 @@
+package algorithms.part1.unionfind;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * <p align="justify">Weighted quick union where the weights are the sizes of the roots (the smaller tree always goes under the root
+ * of the bigger one, so a tree with k sites has height at most lg k), and {@linkplain #root(int)} is iterative: each site on the 
+ * path is linked to its grandparent (path halving), in the same single pass that finds the root. There is no recursion, so no
+ * input can throw a StackOverflowError.</p>
+ * @author Heron Sanches
+ */
+public final class WeightedQuickUnionPathHalving implements UnionI{
+
+   private final int n;
+   private final int data[];
+   
+   /**Number of sites of each tree, only meaningful on the roots.*/
+   private final int dataSizes[];
+   private int qttComponents;
+
+   
+   public WeightedQuickUnionPathHalving(int n){
+      
+      this.n = n;
+      this.data = new int[n];
+      this.dataSizes = new int[n];
+      this.qttComponents = n;
+      
+      for(int i=0; i<n; i++){
+         
+         data[i] = i;
+         dataSizes[i] = 1;
+         
+      }
+      
+   }
+   
+   
+   /**This method finds a site on data array (represents the components) and returns your value.
+    *@param p site.*/
+   @Override
+   public int find(int p){
+      return data[p];
+   }
+   
+   
+   /**@param p site, that is represented by an index element on data array, in this case the array represents a forest.
+    * @return the root of the tree - the array (data[]) index.*/
+   public int root(int p){
+      
+      while(data[p] != p){
+         
+         data[p] = data[data[p]]; //path halving, p points to its grandparent
+         p = data[p];
+         
+      }
+      
+      return p;
+      
+   }
+   
+   
+   /**@param p site, that is represented by an index element on data array.
+    * @param q site.
+    * @return true if the two sites are connected, otherwise returns false*/
+   @Override
+   public boolean connected(int p, int q){
+      return root(p) == root(q);
+   }
+   
+   
+   /**This method connect these two sites to the same component, those components now have the same root tree.
+    * @param p: site, that is represented by an index element on data array.
+    * @param q: site.*/
+   @Override
+   public void union(int p, int q){
+
+      int pRoot = root(p);
+      int qRoot = root(q);
+      
+      if(pRoot == qRoot)
+         return;
+      
+      if(dataSizes[pRoot] > dataSizes[qRoot]){
+         
+         data[qRoot] = pRoot; //q's root points to the p's root
+         dataSizes[pRoot] += dataSizes[qRoot];
+         
+      }else{
+         
+         data[pRoot] = qRoot; //p's root points to the q's root
+         dataSizes[qRoot] += dataSizes[pRoot];
+         
+      }
+      
+      qttComponents--;
+      
+   }
+   
+   
+   /**@return number of components.*/
+   @Override
+   public int count(){
+      return qttComponents;
+   }
+   
+   
+   /**@return number of sites of the component of p.*/
+   @Override
+   public int componentSize(int p){
+      return dataSizes[root(p)];
+   }
+   
+   
+   /**It writes all components, grouped in linear time by {@linkplain Components}.*/
+   @Override
+   public void exportComponents(Writer out) throws IOException {
+      Components.of(this, n).write(out);
+   }
+   
+   
+}
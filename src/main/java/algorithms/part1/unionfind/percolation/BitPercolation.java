@@ -0,0 +1,242 @@
+package algorithms.part1.unionfind.percolation;
+
+import algorithms.part1.unionfind.EdgeReaderI;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * <p align="justify">Percolation with no union-find: each row is a bitmap of open sites, one long per 64 columns, and the full sites are
+ * found by flooding from the top row, 64 sites at a time. A row is flooded sideways with an addition: adding the full sites to the open
+ * ones carries through each run of open sites, from the full site to the end of the run, and the carry out of a long goes on in the next
+ * one. Going the other way is the same addition on the reversed longs. Then the full sites of a row seed the row below and the row above,
+ * down and up the grid, until nothing changes.</p>
+ * <p align="justify">Opening a site only marks the grid as changed. The flooding starts from the last full sites, never from scratch,
+ * and only when isFull() or percolates() is asked, so it pays off when many sites are opened between two questions, e.g., checking
+ * whole grids at high occupancy.</p>
+ * @author Heron Sanches
+ */
+public class BitPercolation implements PercolationI{
+   
+   private final int n;
+   private final int words;
+   
+   /**One bit per site, bit c % 64 of the long c / 64 of the row. 0: blocked, 1:opened.*/
+   private final long open[][];
+   
+   /**Full sites found by the last flooding, a subset of the open sites.*/
+   private final long full[][];
+   private int qttOpenSites;
+   
+   /**Some site was opened after the last flooding.*/
+   private boolean changed;
+   
+   
+   public BitPercolation(int n){ // create n-by-n grid, with all sites blocked
+      
+      if(n <= 0)
+         throw new IllegalArgumentException();
+      
+      this.n = n;
+      this.words = (n + 63) >>> 6;
+      this.open = new long[n][words];
+      this.full = new long[n][words];
+      
+   }
+   
+   
+   private void check(int row, int col){
+      
+      if(row < 1 || col < 1 || row > n || col > n)
+         throw new IndexOutOfBoundsException();
+      
+   }
+   
+   
+   @Override
+   public void open(int row, int col){ // open site (row, col) if it is not open already
+      
+      check(row, col);
+      long bit = 1L << (col - 1);
+      long word[] = open[row - 1];
+      
+      if((word[(col - 1) >>> 6] & bit) == 0){
+         
+         word[(col - 1) >>> 6] |= bit;
+         qttOpenSites++;
+         changed = true;
+         
+      }
+      
+   }
+   
+   
+   /**It blocks all sites again, so the same instance can be used for another grid, without allocating anything.*/
+   public void reset(){
+      
+      for(int r=0; r<n; r++){
+         
+         Arrays.fill(open[r], 0);
+         Arrays.fill(full[r], 0);
+         
+      }
+      
+      qttOpenSites = 0;
+      changed = false;
+      
+   }
+   
+   
+   @Override
+   public boolean isOpen(int row, int col){ // is site (row, col) open?
+      
+      check(row, col);
+      return (open[row - 1][(col - 1) >>> 6] & (1L << (col - 1))) != 0;
+      
+   }
+   
+   
+   @Override
+   public boolean isFull(int row, int col){  // is site (row, col) full?
+      
+      check(row, col);
+      flood();
+      return (full[row - 1][(col - 1) >>> 6] & (1L << (col - 1))) != 0;
+      
+   }
+   
+   
+   @Override
+   public int numberOfOpenSites(){ // number of open sites
+      return qttOpenSites;
+   }
+   
+   
+   @Override
+   public boolean percolates(){ // does the system percolate?
+      
+      flood();
+      
+      for(long word : full[n - 1]){
+         
+         if(word != 0)
+            return true;
+         
+      }
+      
+      return false;
+      
+   }
+   
+   
+   /**It floods the grid from the top row, down and up, until a pass changes nothing.*/
+   private void flood(){
+      
+      if(!changed)
+         return;
+      
+      changed = false;
+      boolean grew = fill(0, open[0]); //the open sites of the top row are full
+      
+      for(boolean first=true; first || grew; first=false){
+         
+         grew = false;
+         
+         for(int r=1; r<n; r++) //down
+            grew |= fill(r, full[r - 1]);
+         
+         for(int r=n-2; r>=0; r--) //up
+            grew |= fill(r, full[r + 1]);
+         
+      }
+      
+   }
+   
+   
+   /**It makes full the open sites of the row next to the seeds, and then their whole runs of open sites.
+    * @return true if some site became full.*/
+   private boolean fill(int row, long seeds[]){
+      
+      long o[] = open[row];
+      long f[] = full[row];
+      boolean grew = false;
+      long carry = 0;
+      
+      for(int w=0; w<words; w++){ //towards the last column
+         
+         long x = f[w] | (seeds[w] & o[w]) | (carry & o[w]);
+         
+         if(x == 0){
+            
+            carry = 0;
+            continue;
+            
+         }
+         
+         long filled = (((o[w] + x) ^ o[w]) & o[w]) | x;
+         carry = filled >>> 63 & 1; //a run of open sites that goes on in the next long
+         
+         if(filled != f[w]){
+            
+            f[w] = filled;
+            grew = true;
+            
+         }
+         
+      }
+      
+      carry = 0;
+      
+      for(int w=words-1; w>=0; w--){ //towards the first column
+         
+         long x = f[w] | (carry << 63 & o[w]);
+         
+         if(x == 0){
+            
+            carry = 0;
+            continue;
+            
+         }
+         
+         long ro = Long.reverse(o[w]);
+         long rx = Long.reverse(x);
+         long filled = Long.reverse((((ro + rx) ^ ro) & ro) | rx);
+         carry = filled & 1;
+         
+         if(filled != f[w]){
+            
+            f[w] = filled;
+            grew = true;
+            
+         }
+         
+      }
+      
+      return grew;
+      
+   }
+   
+   
+   public static void main(String[] args) throws IOException {   // test client (optional)
+      
+      try(EdgeReaderI input = EdgeReaderI.open(args[0])){
+         
+         BitPercolation perc = new BitPercolation(input.nextInt());
+         int batch[] = new int[1 << 13];
+         int size;
+         
+         while((size = input.nextBatch(batch)) > 0){
+            
+            for(int i=0; i<size; i+=2)
+               perc.open(batch[i], batch[i+1]);
+            
+         }
+         
+         System.out.println("percolates? "+perc.percolates());
+         System.out.println("n opened sites: "+perc.numberOfOpenSites());
+         
+      }
+      
+   }
+   
+   
+}
@@ -0,0 +1,378 @@
+package algorithms.part1.unionfind.percolation;
+
+import algorithms.part1.unionfind.EdgeReaderI;
+import algorithms.part1.unionfind.TxtUtils;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+
+/**
+ * <p align="justify">Hoshen–Kopelman cluster labeling of a static n-by-n grid, one row at a time, from the top to the bottom. Only the
+ * labels of the last row are kept: each new row is labeled from its left neighbor and from the row above, in a union-find of at most 2n
+ * labels, and then its labels are compacted to [0, n), so the memory is O(n) whatever the number of rows.</p>
+ * <p align="justify">A cluster is finished as soon as a row does not reach it anymore, and it is counted then. The grid percolates if a
+ * cluster that started on the first row reaches the last one.</p>
+ * @author Heron Sanches
+ */
+public class HoshenKopelman {
+   
+   private static final int NONE = -1;
+   
+   private final int n;
+   
+   /**Labels of the last row, one per column, NONE for blocked sites.*/
+   private int labels[];
+   private int rowLabels[];
+   
+   /**Union-find of the labels: [0, n) for the compacted labels of the last row, [n, 2n) for the ones made by the new row.*/
+   private final int parent[];
+   private final long size[];
+   private final boolean top[];
+   
+   /**Compaction: the new label of each root, or NONE.*/
+   private final int compacted[];
+   private final long compactedSize[];
+   private final boolean compactedTop[];
+   
+   /**Labels in use after the last compaction.*/
+   private int qttLabels;
+   private int rows;
+   private long qttOpenSites;
+   private long clusters;
+   private long largestCluster;
+   private boolean percolates;
+   
+   
+   public HoshenKopelman(int n){
+      
+      if(n <= 0)
+         throw new IllegalArgumentException();
+      
+      this.n = n;
+      this.labels = new int[n];
+      this.rowLabels = new int[n];
+      this.parent = new int[2 * n];
+      this.size = new long[2 * n];
+      this.top = new boolean[2 * n];
+      this.compacted = new int[2 * n];
+      this.compactedSize = new long[n];
+      this.compactedTop = new boolean[n];
+      Arrays.fill(labels, NONE);
+      Arrays.fill(compacted, NONE);
+      
+   }
+   
+   
+   private int root(int label){
+      
+      while(parent[label] != label){
+         
+         parent[label] = parent[parent[label]]; //path halving
+         label = parent[label];
+         
+      }
+      
+      return label;
+      
+   }
+   
+   
+   /**@return the root of both, by size.*/
+   private int union(int p, int q){
+      
+      p = root(p);
+      q = root(q);
+      
+      if(p == q)
+         return p;
+      
+      if(size[p] < size[q]){
+         
+         int root = q;
+         q = p;
+         p = root;
+         
+      }
+      
+      parent[q] = p;
+      size[p] += size[q];
+      top[p] |= top[q];
+      return p;
+      
+   }
+   
+   
+   /**It labels the next row, from the top.
+    * @param row one bit per column, bit c of row[c >>> 6] set for an open site.
+    * @throws IllegalStateException if all n rows were added already.*/
+   public void addRow(long row[]){
+      
+      if(rows == n)
+         throw new IllegalStateException("all "+n+" rows were added");
+      
+      int next = n; //labels made by this row
+      int left = NONE;
+      
+      for(int c=0; c<n; c++){
+         
+         if((row[c >>> 6] & (1L << c)) == 0){
+            
+            rowLabels[c] = left = NONE;
+            continue;
+            
+         }
+         
+         int up = labels[c];
+         int label;
+         
+         if(up == NONE && left == NONE){ //a new cluster, for now
+            
+            label = next++;
+            parent[label] = label;
+            size[label] = 0;
+            top[label] = rows == 0;
+            
+         }else if(up == NONE){
+            label = root(left);
+         }else if(left == NONE){
+            label = root(up);
+         }else{
+            label = union(up, left);
+         }
+         
+         size[label]++;
+         rowLabels[c] = left = label;
+         qttOpenSites++;
+         
+      }
+      
+      rows++;
+      compact(next);
+      
+   }
+   
+   
+   /**It counts the clusters that the new row did not reach, and it relabels the new row to [0, n).
+    * @param next the first label not made by the new row.*/
+   private void compact(int next){
+      
+      int qttNew = 0;
+      
+      for(int c=0; c<n; c++){
+         
+         if(rowLabels[c] == NONE)
+            continue;
+         
+         int root = root(rowLabels[c]);
+         
+         if(compacted[root] == NONE){
+            
+            compactedSize[qttNew] = size[root];
+            compactedTop[qttNew] = top[root];
+            compacted[root] = qttNew++;
+            
+         }
+         
+         rowLabels[c] = compacted[root];
+         
+      }
+      
+      for(int label=0; label<qttLabels; label++){ //clusters of the row above
+         
+         int root = root(label);
+         
+         if(compacted[root] == NONE){ //finished, it goes no further down
+            
+            compacted[root] = n; //counted, any value but NONE
+            finish(size[root], false);
+            
+         }
+         
+      }
+      
+      for(int label=0; label<qttLabels; label++)
+         compacted[root(label)] = NONE;
+      
+      for(int label=n; label<next; label++)
+         compacted[label] = NONE;
+      
+      for(int label=0; label<qttNew; label++){
+         
+         parent[label] = label;
+         size[label] = compactedSize[label];
+         top[label] = compactedTop[label];
+         
+      }
+      
+      qttLabels = qttNew;
+      int swap[] = labels;
+      labels = rowLabels;
+      rowLabels = swap;
+      
+      if(rows == n){ //the last row, all clusters finish
+         
+         for(int label=0; label<qttLabels; label++)
+            finish(size[label], top[label]);
+         
+         qttLabels = 0;
+         
+      }
+      
+   }
+   
+   
+   private void finish(long clusterSize, boolean spanning){
+      
+      clusters++;
+      largestCluster = Math.max(largestCluster, clusterSize);
+      percolates |= spanning;
+      
+   }
+   
+   
+   /**@return true if some cluster reaches the first and the last rows, after all n rows were added.*/
+   public boolean percolates(){
+      return percolates;
+   }
+   
+   
+   /**@return how many clusters were finished, all of them after all n rows were added.*/
+   public long clusters(){
+      return clusters;
+   }
+   
+   
+   /**@return the number of sites of the largest finished cluster.*/
+   public long largestCluster(){
+      return largestCluster;
+   }
+   
+   
+   public long numberOfOpenSites(){
+      return qttOpenSites;
+   }
+   
+   
+   public int rows(){
+      return rows;
+   }
+   
+   
+   /**<p align="justify">It labels a grid given as open sites, the same input of {@linkplain Percolation#main(String[])}. The sites come
+    * in any order, so they are kept in a bitmap first, one bit per site, and then the rows are labeled.</p>*/
+   public static HoshenKopelman ofSites(EdgeReaderI input) throws IOException {
+      
+      int n = input.nextInt();
+      int words = (n + 63) >>> 6;
+      long grid[] = new long[Math.multiplyExact(n, words)];
+      int batch[] = new int[1 << 13];
+      int size;
+      
+      while((size = input.nextBatch(batch)) > 0){
+         
+         for(int i=0; i<size; i+=2){
+            
+            int row = batch[i];
+            int col = batch[i+1];
+            
+            if(row < 1 || col < 1 || row > n || col > n)
+               throw new IndexOutOfBoundsException();
+            
+            grid[(row - 1) * words + ((col - 1) >>> 6)] |= 1L << (col - 1);
+            
+         }
+         
+      }
+      
+      HoshenKopelman hk = new HoshenKopelman(n);
+      long row[] = new long[words];
+      
+      for(int r=0; r<n; r++){
+         
+         System.arraycopy(grid, r * words, row, 0, words);
+         hk.addRow(row);
+         
+      }
+      
+      return hk;
+      
+   }
+   
+   
+   /**<p align="justify">It labels a grid given as a bitmap: n, and then n rows of n characters, 1 for an open site and 0 for a blocked
+    * one, white spaces ignored. Only one row is read at a time, so the grid never has to fit in memory.</p>*/
+   public static HoshenKopelman ofBitmap(InputStream in) throws IOException {
+      
+      InputStream input = new BufferedInputStream(in, 1 << 16);
+      int b;
+      int n = 0;
+      
+      while( (b = input.read()) != -1 && Character.isWhitespace(b));
+      
+      for(; b >= '0' && b <= '9'; b = input.read())
+         n = n * 10 + (b - '0');
+      
+      HoshenKopelman hk = new HoshenKopelman(n);
+      long row[] = new long[(n + 63) >>> 6];
+      
+      for(int r=0; r<n; r++){
+         
+         Arrays.fill(row, 0);
+         
+         for(int c=0; c<n; ){
+            
+            b = input.read();
+            
+            if(b == '1')
+               row[c >>> 6] |= 1L << c;
+            else if(b != '0' && !Character.isWhitespace(b))
+               throw new InputMismatchException("row "+(r + 1)+": 0 or 1 expected");
+            
+            if(b == '0' || b == '1')
+               c++;
+            
+         }
+         
+         hk.addRow(row);
+         
+      }
+      
+      return hk;
+      
+   }
+   
+   
+   /**Execution: <br>
+    * mvn exec:java -Dexec.mainClass="algorithms.part1.unionfind.percolation.HoshenKopelman" -Dexec.args="[0] [1]"
+    * @param args [0]: the grid, a path as accepted by {@linkplain EdgeReaderI#open(String)} <br>
+    * [1]: sites (default), open sites as in {@linkplain Percolation#main(String[])}, or bitmap, see {@linkplain #ofBitmap(InputStream)}*/
+   public static void main(String[] args) throws IOException {
+      
+      HoshenKopelman hk;
+      
+      if(args.length > 1 && "bitmap".equals(args[1])){
+         
+         try(InputStream in = Files.newInputStream(TxtUtils.resolvePath(args[0]))){
+            hk = ofBitmap(in);
+         }
+         
+      }else{
+         
+         try(EdgeReaderI input = EdgeReaderI.open(args[0])){
+            hk = ofSites(input);
+         }
+         
+      }
+      
+      System.out.println("percolates?      "+hk.percolates());
+      System.out.println("n opened sites:  "+hk.numberOfOpenSites());
+      System.out.println("clusters:        "+hk.clusters());
+      System.out.println("largest cluster: "+hk.largestCluster());
+      
+   }
+   
+   
+}
@@ -0,0 +1,170 @@
+package algorithms.part1.unionfind.percolation;
+
+import algorithms.part1.unionfind.OffHeapUnionFind;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * <p align="justify">The same model as {@linkplain Percolation}, for grids with more than 2^31 sites (n > {@value Percolation#MAX_N}).
+ * Sites are addressed by long indexes, the connections are kept by an {@linkplain OffHeapUnionFind} (direct buffers or a memory-mapped
+ * file) and the open sites by an off-heap bitmap, so a 100k-by-100k grid needs no multi-GB heap. As in {@linkplain Percolation}, 
+ * each component knows whether it touches the top and the bottom rows, so there are no virtual sites and no backwash.</p>
+ * @author Heron Sanches
+ */
+public class LargePercolation implements Closeable {
+   
+   private static final int TOP = 1;
+   private static final int BOTTOM = 2;
+   private static final int FLAGS = TOP | BOTTOM;
+   
+   private static final int BITMAP_SHIFT = 33; //sites per bitmap segment, 2^30 bytes
+   private static final long BITMAP_MASK = (1L << BITMAP_SHIFT) - 1;
+   
+   private final int n;
+   private final OffHeapUnionFind uf;
+   
+   /**It indicates sites opened and blocked, one bit per site. 0: blocked, 1:opened.*/
+   private final ByteBuffer sites[];
+   private long qttOpenSites;
+   private boolean percolates;
+   
+   
+   /**Direct buffers.*/
+   public LargePercolation(int n){ // create n-by-n grid, with all sites blocked
+      
+      this.n = checkN(n);
+      this.uf = new OffHeapUnionFind((long) n * n);
+      this.sites = bitmap((long) n * n);
+      
+   }
+   
+   
+   /**The union-find is kept in a memory-mapped file, see {@linkplain OffHeapUnionFind#OffHeapUnionFind(long, Path)}.*/
+   public LargePercolation(int n, Path file) throws IOException {
+      
+      this.n = checkN(n);
+      this.uf = new OffHeapUnionFind((long) n * n, file);
+      this.sites = bitmap((long) n * n);
+      
+   }
+   
+   
+   private static int checkN(int n){
+      
+      if(n <= 0)
+         throw new IllegalArgumentException();
+      
+      return n;
+      
+   }
+   
+   
+   private static ByteBuffer[] bitmap(long qttSites){
+      
+      long bytes = (qttSites + 7) >>> 3;
+      ByteBuffer bitmap[] = new ByteBuffer[(int) ((qttSites + BITMAP_MASK) >>> BITMAP_SHIFT)];
+      
+      for(int i=0; i<bitmap.length; i++)
+         bitmap[i] = ByteBuffer.allocateDirect((int) Math.min(1L << (BITMAP_SHIFT - 3), bytes - ((long) i << (BITMAP_SHIFT - 3))));
+      
+      return bitmap;
+      
+   }
+   
+   
+   /**Calculates the index of the site, from 0 to n*n-1, based on a nxn grid, where row and column indices are integers from 1 to n.*/
+   private long calculatesIndex(int row, int col){
+      return (long) n * (row - 1) + col - 1;
+   }
+   
+   
+   private void validate(int row, int col){
+      
+      if(row < 1 || col < 1 || row > n || col > n)
+         throw new IndexOutOfBoundsException();
+      
+   }
+   
+   
+   private boolean isOpen(long site){
+      
+      ByteBuffer segment = sites[(int) (site >>> BITMAP_SHIFT)];
+      return (segment.get((int) ((site & BITMAP_MASK) >>> 3)) & (1 << (site & 7))) != 0;
+      
+   }
+   
+   
+   public void open(int row, int col){ // open site (row, col) if it is not open already
+      
+      validate(row, col);
+      long site = calculatesIndex(row, col);
+      
+      if(isOpen(site))
+         return;
+      
+      ByteBuffer segment = sites[(int) (site >>> BITMAP_SHIFT)];
+      int index = (int) ((site & BITMAP_MASK) >>> 3);
+      segment.put(index, (byte) (segment.get(index) | (1 << (site & 7))));
+      qttOpenSites++;
+      
+      int flags = (row == 1 ? TOP : 0) | (row == n ? BOTTOM : 0); //upper and bottom sites
+      
+      if(flags != 0)
+         uf.tag(site, flags);
+      
+      if(col < n && isOpen(site + 1)) //right neighboor
+         uf.union(site, site + 1);
+      
+      if(col > 1 && isOpen(site - 1)) //left neighboor
+         uf.union(site, site - 1);
+      
+      if(row > 1 && isOpen(site - n)) //up neighboor
+         uf.union(site, site - n);
+      
+      if(row < n && isOpen(site + n)) //bottom neighboor
+         uf.union(site, site + n);
+      
+      if(uf.tags(site) == FLAGS)
+         percolates = true;
+      
+   }
+   
+   
+   public boolean isOpen(int row, int col){ // is site (row, col) open?
+      
+      validate(row, col);
+      return isOpen(calculatesIndex(row, col));
+      
+   }
+   
+   
+   public boolean isFull(int row, int col){  // is site (row, col) full?
+      
+      validate(row, col);
+      long site = calculatesIndex(row, col);
+      return isOpen(site) && (uf.tags(site) & TOP) != 0;
+      
+   }
+   
+   
+   public long numberOfOpenSites(){ // number of open sites
+      return qttOpenSites;
+   }
+   
+   
+   public boolean percolates(){ // does the system percolate?
+      return percolates;
+   }
+   
+   
+   /**It writes the union-find back to its file, if there is one, and lets the GC release its memory, see
+    * {@linkplain OffHeapUnionFind#close()}.*/
+   @Override
+   public void close(){
+      uf.close();
+   }
+   
+   
+}
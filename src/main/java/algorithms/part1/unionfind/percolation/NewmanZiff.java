@@ -0,0 +1,296 @@
+package algorithms.part1.unionfind.percolation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p align="justify">Newman–Ziff percolation curve. Each trial opens all n*n sites, in the order of a random permutation, and records
+ * for every number k of open sites whether the system percolates and the size of the largest cluster. Averaged over the trials, these
+ * are the curves for exactly k open sites, and the curves for a probability p of each site being open come from them by a binomial
+ * convolution, for any p, with no more trials.</p>
+ * <p align="justify">The trials run like in {@linkplain PercolationStats}: one {@linkplain SplittableRandom} per trial, split in trial
+ * order from the seed, so the same seed gives the same curves whatever the number of threads.</p>
+ * @author Heron Sanches
+ */
+public class NewmanZiff {
+   
+   private static final int TOP = 1;
+   private static final int BOTTOM = 2;
+   private static final int FLAGS = TOP | BOTTOM;
+   
+   /**Binomial weights smaller than this, relative to the mode, are left out.*/
+   private static final double NEGLIGIBLE = 1e-15;
+   
+   private final int n;
+   private final int qttSites;
+   private final int trials;
+   
+   /**For each k, the number of trials that percolate with k open sites.*/
+   private final long percolating[];
+   
+   /**For each k, the sum over the trials of the largest cluster with k open sites.*/
+   private final long largest[];
+   
+   
+   /**@param seed the same seed gives the same curves.
+    * @param threads how many trials run at the same time.*/
+   public NewmanZiff(int n, int trials, long seed, int threads){
+      
+      if(n <= 0 || trials <= 0 || threads <= 0)
+         throw new IllegalArgumentException();
+      
+      if(n > Percolation.MAX_N)
+         throw new IllegalArgumentException("n > "+Percolation.MAX_N);
+      
+      this.n = n;
+      this.qttSites = n * n;
+      this.trials = trials;
+      this.percolating = new long[qttSites + 1];
+      this.largest = new long[qttSites + 1];
+      
+      SplittableRandom seedRandom = new SplittableRandom(seed);
+      SplittableRandom randoms[] = new SplittableRandom[trials];
+      
+      for(int i=0; i<trials; i++)
+         randoms[i] = seedRandom.split();
+      
+      runTrials(randoms, Math.min(threads, trials));
+      
+      for(int k=1; k<=qttSites; k++) //from "percolates first with k open sites" to "percolates with k open sites"
+         percolating[k] += percolating[k - 1];
+      
+   }
+   
+   
+   /**Every thread takes the next trial not taken yet, and adds its results to its own sums, added up at the end. The sums are
+    * integers, so the order does not change them.*/
+   private void runTrials(SplittableRandom randoms[], int threads){
+      
+      AtomicInteger nextTrial = new AtomicInteger();
+      List<Callable<long[][]>> workers = new ArrayList<>();
+      
+      for(int i=0; i<threads; i++){
+         
+         workers.add(() -> {
+            
+            long sums[][] = new long[2][qttSites + 1];
+            int parent[] = new int[qttSites];
+            byte flags[] = new byte[qttSites];
+            int permutation[] = new int[qttSites];
+            int trial;
+            
+            while( (trial = nextTrial.getAndIncrement()) < trials)
+               trial(randoms[trial], parent, flags, permutation, sums[0], sums[1]);
+            
+            return sums;
+            
+         });
+         
+      }
+      
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      
+      try{
+         
+         for(Future<long[][]> worker : executor.invokeAll(workers)){
+            
+            long sums[][] = worker.get();
+            
+            for(int k=0; k<=qttSites; k++){
+               
+               percolating[k] += sums[0][k];
+               largest[k] += sums[1][k];
+               
+            }
+            
+         }
+         
+      }catch(InterruptedException ex){
+         
+         Thread.currentThread().interrupt();
+         throw new IllegalStateException(ex);
+         
+      }catch(ExecutionException ex){
+         throw new IllegalStateException(ex.getCause());
+      }finally{
+         executor.shutdownNow();
+      }
+      
+   }
+   
+   
+   /**One trial, all sites opened. The union-find keeps -size on the roots, the parent + 1 on the other open sites and 0 on the blocked 
+    * ones, and the flags of a root say whether its cluster touches the top and the bottom rows.
+    * @param percolating the entry of the number of open sites that makes the system percolate is incremented.
+    * @param largest the largest cluster of each number of open sites is added.*/
+   private void trial(SplittableRandom random, int parent[], byte flags[], int permutation[], long percolating[], long largest[]){
+      
+      for(int i=0; i<qttSites; i++){
+         
+         permutation[i] = i;
+         parent[i] = 0;
+         
+      }
+      
+      boolean percolates = false;
+      int largestSize = 0;
+      
+      for(int opened=0; opened<qttSites; opened++){
+         
+         int swap = opened + random.nextInt(qttSites - opened); //Fisher–Yates
+         int site = permutation[swap];
+         permutation[swap] = permutation[opened];
+         permutation[opened] = site;
+         
+         int row = site / n;
+         int col = site % n;
+         parent[site] = -1;
+         flags[site] = (byte) ((row == 0 ? TOP : 0) | (row == n - 1 ? BOTTOM : 0));
+         int root = site;
+         
+         if(col < n - 1 && parent[site + 1] != 0)
+            root = union(parent, flags, root, site + 1);
+         
+         if(col > 0 && parent[site - 1] != 0)
+            root = union(parent, flags, root, site - 1);
+         
+         if(row > 0 && parent[site - n] != 0)
+            root = union(parent, flags, root, site - n);
+         
+         if(row < n - 1 && parent[site + n] != 0)
+            root = union(parent, flags, root, site + n);
+         
+         largestSize = Math.max(largestSize, -parent[root]);
+         largest[opened + 1] += largestSize;
+         
+         if(!percolates && flags[root] == FLAGS){
+            
+            percolates = true;
+            percolating[opened + 1]++;
+            
+         }
+         
+      }
+      
+   }
+   
+   
+   /**@param site an open site.
+    * @return the root of the site's tree, halving the path on the way.*/
+   private static int root(int parent[], int site){
+      
+      while(parent[site] > 0){
+         
+         int up = parent[site] - 1;
+         
+         if(parent[up] > 0)
+            parent[site] = parent[up]; //path halving
+         
+         site = parent[site] - 1;
+         
+      }
+      
+      return site;
+      
+   }
+   
+   
+   /**@param root a root.
+    * @return the root of both, by size.*/
+   private static int union(int parent[], byte flags[], int root, int site){
+      
+      int other = root(parent, site);
+      
+      if(other == root)
+         return root;
+      
+      if(parent[root] > parent[other]){ //other is bigger, sizes are negative
+         
+         int swap = root;
+         root = other;
+         other = swap;
+         
+      }
+      
+      parent[root] += parent[other];
+      parent[other] = root + 1; //parents are kept + 1, 0 is a blocked site
+      flags[root] |= flags[other];
+      return root;
+      
+   }
+   
+   
+   /**@return the fraction of the trials that percolate with exactly k open sites.*/
+   public double percolationProbability(int k){
+      return (double) percolating[k] / trials;
+   }
+   
+   
+   /**@return the mean size of the largest cluster with exactly k open sites, as a fraction of all sites.*/
+   public double largestClusterFraction(int k){
+      return (double) largest[k] / trials / qttSites;
+   }
+   
+   
+   /**@return P(p), the probability of the system percolating when each site is open with probability p.*/
+   public double percolationProbability(double p){
+      return convolve(percolating, p) / trials;
+   }
+   
+   
+   /**@return the mean size of the largest cluster when each site is open with probability p, as a fraction of all sites.*/
+   public double largestClusterFraction(double p){
+      return convolve(largest, p) / trials / qttSites;
+   }
+   
+   
+   /**<p align="justify">Σ C(N, k) p^k (1-p)^(N-k) values[k]. The binomial weights are computed from the mode outwards, each one from
+    * its neighbor by their ratio, and normalized by their sum at the end, so nothing overflows nor underflows.</p>*/
+   private double convolve(long values[], double p){
+      
+      if(p < 0 || p > 1)
+         throw new IllegalArgumentException("p out of [0, 1]");
+      
+      if(p == 0)
+         return values[0];
+      
+      if(p == 1)
+         return values[qttSites];
+      
+      int mode = (int) Math.min(qttSites, Math.floor((qttSites + 1) * p));
+      double odds = p / (1 - p);
+      double weightSum = 1;
+      double sum = values[mode];
+      double weight = 1;
+      
+      for(int k=mode; k<qttSites && weight > NEGLIGIBLE; k++){ //upwards
+         
+         weight *= (double) (qttSites - k) / (k + 1) * odds;
+         weightSum += weight;
+         sum += weight * values[k + 1];
+         
+      }
+      
+      weight = 1;
+      
+      for(int k=mode; k>0 && weight > NEGLIGIBLE; k--){ //downwards
+         
+         weight *= (double) k / (qttSites - k + 1) / odds;
+         weightSum += weight;
+         sum += weight * values[k - 1];
+         
+      }
+      
+      return sum / weightSum;
+      
+   }
+   
+   
+}
@@ -0,0 +1,453 @@
+package algorithms.part1.unionfind.percolation;
+
+import algorithms.part1.unionfind.TxtUtils;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.StringTokenizer;
+
+/**
+ * <p align="justify">Percolation where sites can be closed again, answered offline: the whole script of opens, closes and questions is
+ * recorded first, and then answered at once. Each stretch of time a site stays open is an interval of questions, kept in a segment tree
+ * over the questions. A depth-first walk of the tree opens the sites of each node in a union-find with rollback (weighted by size, no
+ * path compression, so a union is undone in O(1)), answers the question at each leaf, and undoes the node on the way back. Each interval
+ * goes to O(log q) nodes and each find costs O(log n), so an operation costs O(log q log n), not a new grid for each question.</p>
+ * <p align="justify">The roots keep TOP and BOTTOM flags, like {@linkplain Percolation}, so there is no backwash, and the number of
+ * roots with both flags says whether the system percolates.</p>
+ * @author Heron Sanches
+ */
+public class OfflinePercolation {
+   
+   private static final int TOP = 1;
+   private static final int BOTTOM = 2;
+   private static final int FLAGS = TOP | BOTTOM;
+   
+   /**Kinds of question.*/
+   private static final int PERCOLATES = 0;
+   private static final int IS_FULL = 1;
+   
+   private final int n;
+   
+   /**Question where each open site was opened, or -1 for the blocked ones.*/
+   private final int openedAt[];
+   
+   /**Open intervals, [from, to) in questions: site, from and to.*/
+   private int intervals[] = new int[3 * 16];
+   private int qttIntervals;
+   
+   /**Questions: kind and site (for isFull).*/
+   private int questions[] = new int[2 * 16];
+   private int qttQuestions;
+   
+   //*****union-find with rollback*****
+   private int parent[];
+   private int size[];
+   private byte flags[];
+   private boolean open[];
+   private int spanning;
+   
+   /**Undo log, 3 ints per change: the root linked under another one (or ~site for an opened site), the old flags of the other root
+    * and the old number of spanning roots.*/
+   private int undo[];
+   private int undoSize;
+   //*****END*****union-find with rollback*****
+   
+   
+   public OfflinePercolation(int n){ // create n-by-n grid, with all sites blocked
+      
+      if(n <= 0)
+         throw new IllegalArgumentException();
+      
+      if(n > Percolation.MAX_N)
+         throw new IllegalArgumentException("n > "+Percolation.MAX_N);
+      
+      this.n = n;
+      this.openedAt = new int[n * n];
+      Arrays.fill(openedAt, -1);
+      
+   }
+   
+   
+   private int site(int row, int col){
+      
+      if(row < 1 || col < 1 || row > n || col > n)
+         throw new IndexOutOfBoundsException();
+      
+      return n*(row - 1) + col - 1;
+      
+   }
+   
+   
+   /**It opens the site (row, col) from the next question on, if it is not open already.*/
+   public void open(int row, int col){
+      
+      int site = site(row, col);
+      
+      if(openedAt[site] == -1)
+         openedAt[site] = qttQuestions;
+      
+   }
+   
+   
+   /**It blocks the site (row, col) from the next question on, if it is open.*/
+   public void close(int row, int col){
+      
+      int site = site(row, col);
+      
+      if(openedAt[site] != -1){
+         
+         addInterval(site, openedAt[site], qttQuestions);
+         openedAt[site] = -1;
+         
+      }
+      
+   }
+   
+   
+   /**It asks whether the system percolates at this point of the script.
+    * @return the index of the answer, see {@linkplain #answers()}.*/
+   public int askPercolates(){
+      return ask(PERCOLATES, 0);
+   }
+   
+   
+   /**It asks whether the site (row, col) is full at this point of the script.
+    * @return the index of the answer, see {@linkplain #answers()}.*/
+   public int askIsFull(int row, int col){
+      return ask(IS_FULL, site(row, col));
+   }
+   
+   
+   private int ask(int kind, int site){
+      
+      if(2 * qttQuestions == questions.length)
+         questions = Arrays.copyOf(questions, 2 * questions.length);
+      
+      questions[2 * qttQuestions] = kind;
+      questions[2 * qttQuestions + 1] = site;
+      return qttQuestions++;
+      
+   }
+   
+   
+   private void addInterval(int site, int from, int to){
+      
+      if(from == to) //closed before any question
+         return;
+      
+      if(3 * qttIntervals == intervals.length)
+         intervals = Arrays.copyOf(intervals, 2 * intervals.length);
+      
+      intervals[3 * qttIntervals] = site;
+      intervals[3 * qttIntervals + 1] = from;
+      intervals[3 * qttIntervals + 2] = to;
+      qttIntervals++;
+      
+   }
+   
+   
+   /**It answers all questions asked so far. The sites still open stay open until the end of the script.
+    * @return one answer per question, in the order they were asked.*/
+   public boolean[] answers(){
+      
+      boolean answers[] = new boolean[qttQuestions];
+      
+      if(qttQuestions == 0)
+         return answers;
+      
+      int recorded = qttIntervals;
+      
+      for(int site=0; site<openedAt.length; site++){
+         
+         if(openedAt[site] != -1)
+            addInterval(site, openedAt[site], qttQuestions);
+         
+      }
+      
+      //*****segment tree over the questions, each node with a linked list of sites*****
+      int nodes = 4 * qttQuestions;
+      int head[] = new int[nodes];
+      int next[] = new int[2 * qttIntervals];
+      int value[] = new int[next.length];
+      int used = 0;
+      Arrays.fill(head, -1);
+      int stack[] = new int[3 * 4 * 33]; //nodes to visit, a few per level
+      
+      for(int i=0; i<qttIntervals; i++){
+         
+         int site = intervals[3 * i];
+         int from = intervals[3 * i + 1];
+         int to = intervals[3 * i + 2];
+         int top = 0;
+         stack[top++] = 1; //node
+         stack[top++] = 0; //[lo,
+         stack[top++] = qttQuestions; //hi)
+         
+         while(top > 0){
+            
+            int hi = stack[--top];
+            int lo = stack[--top];
+            int node = stack[--top];
+            
+            if(hi <= from || to <= lo)
+               continue;
+            
+            if(from <= lo && hi <= to){ //the whole node
+               
+               if(used == next.length){
+                  
+                  next = Arrays.copyOf(next, 2 * next.length);
+                  value = Arrays.copyOf(value, next.length);
+                  
+               }
+               
+               value[used] = site;
+               next[used] = head[node];
+               head[node] = used++;
+               continue;
+               
+            }
+            
+            int middle = (lo + hi) >>> 1;
+            stack[top++] = 2 * node;
+            stack[top++] = lo;
+            stack[top++] = middle;
+            stack[top++] = 2 * node + 1;
+            stack[top++] = middle;
+            stack[top++] = hi;
+            
+         }
+         
+      }
+      //*****END*****segment tree over the questions, each node with a linked list of sites*****
+      
+      parent = new int[n * n];
+      size = new int[n * n];
+      flags = new byte[n * n];
+      open = new boolean[n * n];
+      undo = new int[3 * 16];
+      undoSize = 0;
+      spanning = 0;
+      walk(1, 0, qttQuestions, head, next, value, answers);
+      qttIntervals = recorded; //the sites still open stay open, more can be asked
+      return answers;
+      
+   }
+   
+   
+   /**Depth-first walk of the segment tree: the sites of the node are opened, the children are walked, and the node is undone.*/
+   private void walk(int node, int lo, int hi, int head[], int next[], int value[], boolean answers[]){
+      
+      int mark = undoSize;
+      
+      for(int i=head[node]; i!=-1; i=next[i])
+         openSite(value[i]);
+      
+      if(hi - lo == 1){
+         
+         int kind = questions[2 * lo];
+         int site = questions[2 * lo + 1];
+         answers[lo] = kind == PERCOLATES ? spanning > 0 : open[site] && (flags[root(site)] & TOP) != 0;
+         
+      }else{
+         
+         int middle = (lo + hi) >>> 1;
+         walk(2 * node, lo, middle, head, next, value, answers);
+         walk(2 * node + 1, middle, hi, head, next, value, answers);
+         
+      }
+      
+      rollback(mark);
+      
+   }
+   
+   
+   private void log(int changed, int oldFlags){
+      
+      if(undoSize == undo.length)
+         undo = Arrays.copyOf(undo, 2 * undo.length);
+      
+      undo[undoSize++] = changed;
+      undo[undoSize++] = oldFlags;
+      undo[undoSize++] = spanning;
+      
+   }
+   
+   
+   private void openSite(int site){
+      
+      int row = site / n;
+      int col = site % n;
+      log(~site, 0);
+      open[site] = true;
+      parent[site] = site;
+      size[site] = 1;
+      flags[site] = (byte) ((row == 0 ? TOP : 0) | (row == n - 1 ? BOTTOM : 0));
+      
+      if(flags[site] == FLAGS) //n == 1
+         spanning++;
+      
+      if(col < n - 1 && open[site + 1])
+         union(site, site + 1);
+      
+      if(col > 0 && open[site - 1])
+         union(site, site - 1);
+      
+      if(row > 0 && open[site - n])
+         union(site, site - n);
+      
+      if(row < n - 1 && open[site + n])
+         union(site, site + n);
+      
+   }
+   
+   
+   /**No path compression, so a union changes only one link and one root, and it can be undone.*/
+   private int root(int site){
+      
+      while(parent[site] != site)
+         site = parent[site];
+      
+      return site;
+      
+   }
+   
+   
+   private void union(int p, int q){
+      
+      p = root(p);
+      q = root(q);
+      
+      if(p == q)
+         return;
+      
+      if(size[p] < size[q]){ //q becomes the root
+         
+         int root = q;
+         q = p;
+         p = root;
+         
+      }
+      
+      log(q, flags[p]);
+      spanning -= (flags[p] == FLAGS ? 1 : 0) + (flags[q] == FLAGS ? 1 : 0);
+      parent[q] = p;
+      size[p] += size[q];
+      flags[p] |= flags[q];
+      spanning += flags[p] == FLAGS ? 1 : 0;
+      
+   }
+   
+   
+   /**It undoes all changes after the mark, the last first.*/
+   private void rollback(int mark){
+      
+      while(undoSize > mark){
+         
+         spanning = undo[--undoSize];
+         int oldFlags = undo[--undoSize];
+         int changed = undo[--undoSize];
+         
+         if(changed < 0){ //an opened site, alone again after its unions were undone
+            
+            open[~changed] = false;
+            continue;
+            
+         }
+         
+         int root = parent[changed];
+         size[root] -= size[changed];
+         flags[root] = (byte) oldFlags;
+         parent[changed] = changed;
+         
+      }
+      
+   }
+   
+   
+   /**<p align="justify">It reads a script: n, and then one operation per line, open row col, close row col, percolates or isFull row
+    * col.</p>*/
+   public static OfflinePercolation read(Reader script) throws IOException {
+      
+      BufferedReader reader = new BufferedReader(script);
+      OfflinePercolation perc = null;
+      String line;
+      
+      while((line = reader.readLine()) != null){
+         
+         StringTokenizer tokens = new StringTokenizer(line);
+         
+         if(!tokens.hasMoreTokens())
+            continue;
+         
+         String operation = tokens.nextToken();
+         
+         if(perc == null){
+            
+            perc = new OfflinePercolation(Integer.parseInt(operation));
+            continue;
+            
+         }
+         
+         switch(operation){
+            
+            case "open":
+               perc.open(Integer.parseInt(tokens.nextToken()), Integer.parseInt(tokens.nextToken()));
+               break;
+            
+            case "close":
+               perc.close(Integer.parseInt(tokens.nextToken()), Integer.parseInt(tokens.nextToken()));
+               break;
+            
+            case "percolates":
+               perc.askPercolates();
+               break;
+            
+            case "isFull":
+               perc.askIsFull(Integer.parseInt(tokens.nextToken()), Integer.parseInt(tokens.nextToken()));
+               break;
+            
+            default:
+               throw new InputMismatchException("unknown operation: "+operation);
+            
+         }
+         
+      }
+      
+      if(perc == null)
+         throw new InputMismatchException("n expected");
+      
+      return perc;
+      
+   }
+   
+   
+   /**Execution: <br>
+    * mvn exec:java -Dexec.mainClass="algorithms.part1.unionfind.percolation.OfflinePercolation" -Dexec.args="[0]"
+    * @param args [0]: the script, a resource path or a file system path, see {@linkplain #read(Reader)}. It prints one answer per
+    * line.*/
+   public static void main(String[] args) throws IOException {
+      
+      OfflinePercolation perc;
+      
+      try(Reader script = Files.newBufferedReader(TxtUtils.resolvePath(args[0]))){
+         perc = read(script);
+      }
+      
+      Writer out = new BufferedWriter(new OutputStreamWriter(System.out));
+      
+      for(boolean answer : perc.answers())
+         out.write(answer ? "true\n" : "false\n");
+      
+      out.flush();
+      
+   }
+   
+   
+}
@@ -1,8 +1,8 @@
 package algorithms.part1.unionfind.percolation;
 
-import algorithms.part1.unionfind.TxtUtils;
-import edu.princeton.cs.algs4.WeightedQuickUnionUF; 
-import java.util.Scanner;
+import algorithms.part1.unionfind.EdgeReaderI;
+import java.io.IOException;
+import java.util.Arrays;
 
 
 /**
@@ -15,20 +15,30 @@ import java.util.Scanner;
  * that a system that percolates lets water fill open sites, flowing from top to bottom.)</p>
  * <p align="justify">By convention, the row and column indices are integers from 1 to n, where (1, 1) is the upper-left site: Throw a java.lang.IndexOutOfBoundsException 
  * if any argument to open(), isOpen(), or isFull() is outside its prescribed range. The constructor should throw a java.lang.IllegalArgumentException if n ≤ 0. </p>
+ * <p align="justify">The open sites are kept one bit per site, and the connections in a weighted (by rank) union-find with path halving,
+ * one int per site. There are no virtual top and bottom sites: each root knows whether its component touches the top row and the bottom
+ * row, so a site is full only if its own component touches the top (no backwash after the system percolates), and the system percolates
+ * as soon as a union makes a component that touches both.</p>
  * @author Heron Sanches
  */
-public class Percolation {
+public class Percolation implements PercolationI{
 
-   private final WeightedQuickUnionUF wqu;
+   /**Biggest n whose n*n sites fit in an int, bigger grids have to use {@linkplain LargePercolation}.*/
+   public static final int MAX_N = 46340;
+   
+   private static final int TOP = 1;
+   private static final int BOTTOM = 2;
+   private static final int FLAGS = TOP | BOTTOM;
+   
    private final int n;
    
-   /**It indicates sites opened and blocked. 0: blocked, 1:opened.*/
-   private int sites[];
+   /**It indicates sites opened and blocked, one bit per site. 0: blocked, 1:opened.*/
+   private final long sites[];
+   
+   /**Union-find forest. A site with a value >= 0 points to its parent, a root keeps ~(rank << 2 | TOP | BOTTOM), a negative value.*/
+   private final int parent[];
    private int qttOpenSites;
-   private final int bottomStart;
-   private final int upperStart;
-   private final int topVirtualSite;
-   private final int bottomVirtualSite; //n*n+1
+   private boolean percolates;
    
    
    public Percolation(int n){ // create n-by-n grid, with all sites blocked
@@ -36,84 +46,114 @@ public class Percolation {
       if(n <= 0)
          throw new IllegalArgumentException();
       
+      if(n > MAX_N)
+         throw new IllegalArgumentException("n > "+MAX_N+", use LargePercolation");
+      
       this.n = n;
-      this.upperStart = 1;
-      this.bottomStart = calculatesIndex(n, 1);
-      this.wqu = new WeightedQuickUnionUF(n * n + 2); //added 2 virtual sites, so the algorithm has to work from 1 to n*n real indexes, 0 and n*n+1 are the virtual sites
-      this.sites = new int[n * n + 2];
-      this.topVirtualSite = 0;
-      this.bottomVirtualSite = sites.length - 1;
+      this.sites = new long[(n * n + 63) >>> 6];
+      this.parent = new int[n * n];
+      Arrays.fill(parent, ~0);
    
    }
    
    
-   /**Calculates the correct index of the primitive int Java Array (with one dimension) - index from 0 to n+1, based on a nxn grid, where row and column indices are integers from 1 to n.*/
+   /**Calculates the correct index of the primitive int Java Array (with one dimension) - index from 0 to n*n-1, based on a nxn grid, where row and column indices are integers from 1 to n.*/
    private int calculatesIndex(int row, int col){
-      return n*(row - 1) + col;
+      return n*(row - 1) + col - 1;
+   }
+   
+   
+   private boolean isOpen(int site){
+      return (sites[site >>> 6] & (1L << site)) != 0;
    }
    
    
+   /**@return the root of the site's tree, halving the path on the way.*/
+   private int root(int site){
+      
+      int up;
+      
+      while( (up = parent[site]) >= 0){
+         
+         if(parent[up] >= 0)
+            parent[site] = parent[up]; //path halving, site skips its parent
+         
+         site = parent[site];
+         
+      }
+      
+      return site;
+      
+   }
+   
+   
+   /**@return TOP and/or BOTTOM, if the component of this root touches the top and/or the bottom row.*/
+   private int flags(int root){
+      return ~parent[root] & FLAGS;
+   }
+   
+   
+   private void union(int p, int q){
+      
+      p = root(p);
+      q = root(q);
+      
+      if(p == q)
+         return;
+      
+      int pRank = ~parent[p] >>> 2;
+      int qRank = ~parent[q] >>> 2;
+      int flags = flags(p) | flags(q);
+      
+      if(pRank < qRank){ //q becomes the root
+         
+         int root = q;
+         q = p;
+         p = root;
+         
+      }
+      
+      int rank = Math.max(pRank, qRank) + (pRank == qRank ? 1 : 0);
+      parent[q] = p; //q's root points to the p's root
+      parent[p] = ~(rank << 2 | flags);
+      
+      if(flags == FLAGS)
+         percolates = true;
+      
+   }
+   
+   
+   @Override
    public void open(int row, int col){ // open site (row, col) if it is not open already
       
       if(row < 1 || col < 1 || row > n || col > n)
          throw new IndexOutOfBoundsException();
             
       int site = calculatesIndex(row, col);
-      //System.out.println("site: "+site);
       
-      if(sites[site] == 0){ //not opened
+      if(!isOpen(site)){ //not opened
          
-         sites[site] = 1; //open
+         sites[site >>> 6] |= 1L << site; //open
          qttOpenSites++;
-
-         
-         if(site >= bottomStart){ //bottom sites
-            
-            wqu.union(site, bottomVirtualSite); //connect to the virtual bottom site
-            
-            if(n == 1)
-               wqu.union(site, topVirtualSite);
-            
-         }else if(site >= upperStart && site <= n){ //upper sites
-            wqu.union(site, topVirtualSite); //connect to the virtual upper site
-         }
-         
-         //*****verify if the there are neighborhhoods opened and so connect to them*****
-         if(col+1 <= n){ //right neighboor
-            
-            int right = calculatesIndex(row, col+1);
-            
-            if(sites[right] == 1)
-               wqu.union(site, right);
          
-         }
+         int flags = (row == 1 ? TOP : 0) | (row == n ? BOTTOM : 0); //upper and bottom sites
+         parent[site] = ~flags;
          
-         if(col-1 >= 1){ //left neighboor
-            
-            int left = calculatesIndex(row, col-1);
-            
-            if(sites[left] == 1)
-               wqu.union(site, left);
+         if(flags == FLAGS) //n == 1
+            percolates = true;
          
-         }
+         //*****verify if the there are neighborhhoods opened and so connect to them*****
+         if(col < n && isOpen(site + 1)) //right neighboor
+            union(site, site + 1);
          
-         if(row-1 >= 1){ //up neighboor
-            
-            int up = calculatesIndex(row-1, col);
-            
-            if(sites[up] == 1)
-               wqu.union(site, up);
+         if(col > 1 && isOpen(site - 1)) //left neighboor
+            union(site, site - 1);
          
-         }
+         if(row > 1 && isOpen(site - n)) //up neighboor
+            union(site, site - n);
          
-         if(row+1 <= n){ //bottom neighboor
-            
-            int bottom = calculatesIndex(row+1, col);
-            
-            if(sites[bottom] == 1)
-               wqu.union(site, bottom);
-         
-         }
+         if(row < n && isOpen(site + n)) //bottom neighboor
+            union(site, site + n);
          //*****END*****verify if the there are neighborhhoods opened and so connect to them*****
          
       }
@@ -121,69 +161,83 @@ public class Percolation {
    }
    
    
+   /**It blocks all sites again, so the same instance can be used for another experiment, without allocating anything.*/
+   public void reset(){
+      
+      Arrays.fill(sites, 0);
+      Arrays.fill(parent, ~0);
+      qttOpenSites = 0;
+      percolates = false;
+      
+   }
+   
+   
+   @Override
    public boolean isOpen(int row, int col){ // is site (row, col) open?
       
       if(row < 1 || col < 1 || row > n || col > n)
          throw new IndexOutOfBoundsException();
       
-      return sites[calculatesIndex(row, col)] == 1;
+      return isOpen(calculatesIndex(row, col));
    
    }
    
    
    /**A full site is an open site that can be connected to an open site in the top row via a chain of
     * neighboring (left, right, up, down) open sites */
+   @Override
    public boolean isFull(int row, int col){  // is site (row, col) full?
       
       if(row < 1 || col < 1 || row > n || col > n)
          throw new IndexOutOfBoundsException();
       
-      if(isOpen(row, col))
-         if(wqu.connected(calculatesIndex(row, col), topVirtualSite))
-            return true;
-      
-      return false;
+      int site = calculatesIndex(row, col);
+      return isOpen(site) && (flags(root(site)) & TOP) != 0;
    
    }
    
    
+   @Override
    public int numberOfOpenSites(){ // number of open sites
       return qttOpenSites;
    }
    
    
    /**The system percolates if there is a path from a site located on the most bottom to the most top.*/
+   @Override
    public boolean percolates(){ // does the system percolate?
-      
-      if(wqu.connected(topVirtualSite, bottomVirtualSite))
-         return true;
-      
-      return false;
-      
+      return percolates;
    }
    
    
-   public static void main(String[] args){   // test client (optional)
-      
-      TxtUtils txtUtils = new TxtUtils(args[0]);
-      Scanner input = txtUtils.getInput();
-      
-      Percolation perc = new Percolation(input.nextInt());
-      int row;
-      int col;
+   public static void main(String[] args) throws IOException {   // test client (optional)
       
-      while(input.hasNext()){
+      try(EdgeReaderI input = EdgeReaderI.open(args[0])){
          
-         row = input.nextInt();
-         col = input.nextInt();
-         perc.open(row, col);
-         System.out.println("row: "+row+" column: "+col);
-         System.out.println("isopen? "+perc.isOpen(row, col));
-         System.out.println("percolates? "+perc.percolates());
-         System.out.println("n opened sites: "+perc.numberOfOpenSites());
-         System.out.println("isFull? "+perc.isFull(row, col));
-         System.out.println();
+         Percolation perc = new Percolation(input.nextInt());
+         int batch[] = new int[1 << 13];
+         int size;
+         int row;
+         int col;
+
+         while((size = input.nextBatch(batch)) > 0){
+
+            for(int i=0; i<size; i+=2){
 
+               row = batch[i];
+               col = batch[i+1];
+               perc.open(row, col);
+               System.out.println("row: "+row+" column: "+col);
+               System.out.println("isopen? "+perc.isOpen(row, col));
+               System.out.println("percolates? "+perc.percolates());
+               System.out.println("n opened sites: "+perc.numberOfOpenSites());
+               System.out.println("isFull? "+perc.isFull(row, col));
+               System.out.println();
+
+            }
+
+         }
+         
       }
             
    }
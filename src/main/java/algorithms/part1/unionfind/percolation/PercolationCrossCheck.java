@@ -0,0 +1,341 @@
+package algorithms.part1.unionfind.percolation;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p align="justify">Checks every percolation of this package against a brute-force flood fill, on random grids: {@linkplain Percolation},
+ * {@linkplain BitPercolation}, {@linkplain StripPercolation} (with strips of a random height), {@linkplain LargePercolation} and
+ * {@linkplain HoshenKopelman} on the same random openings, checked halfway and at the end, and {@linkplain OfflinePercolation} on a
+ * random script of opens, closes and questions.</p>
+ * <p align="justify">The flood fill opens nothing of its own: a site is full if a path of open sites joins it to the top row, found by
+ * a breadth-first search from the open sites of the top row, and the clusters are found the same way from every open site.</p>
+ * @author Heron Sanches
+ */
+public final class PercolationCrossCheck {
+   
+   
+   private PercolationCrossCheck(){}
+   
+   
+   /**Execution: <br>
+    * mvn exec:java -Dexec.mainClass="algorithms.part1.unionfind.percolation.PercolationCrossCheck" -Dexec.args="[0] [1] [2]"
+    * @param args [0]: biggest n, each grid is n-by-n with n drawn from [1, [0]] <br>
+    * [1]: number of grids <br>
+    * [2]: seed (optional)*/
+   public static void main(String[] args){
+      
+      int maxN = Integer.parseInt(args[0]);
+      int grids = Integer.parseInt(args[1]);
+      long seed = args.length > 2 ? Long.parseLong(args[2]) : new SplittableRandom().nextLong();
+      
+      long mismatches = check(maxN, grids, seed);
+      System.out.println(grids+" grids up to "+maxN+"-by-"+maxN+", seed "+seed+": "+(mismatches == 0 ? "all answers match" : mismatches+" mismatches"));
+      
+      if(mismatches != 0)
+         System.exit(1);
+      
+   }
+   
+   
+   /**@return how many answers (isFull of each site, percolates, number of open sites, clusters, questions of a script) were not the
+    * same as the flood fill's.*/
+   public static long check(int maxN, int grids, long seed){
+      
+      if(maxN <= 0 || maxN > Percolation.MAX_N || grids < 0)
+         throw new IllegalArgumentException();
+      
+      SplittableRandom random = new SplittableRandom(seed);
+      long mismatches = 0;
+      
+      for(int grid=0; grid<grids; grid++){
+         
+         int n = 1 + random.nextInt(maxN);
+         mismatches += checkOnline(n, random);
+         mismatches += checkOffline(n, random);
+         
+      }
+      
+      return mismatches;
+      
+   }
+   
+   
+   /**It opens a random number of sites, in a random order, on all the online percolations, and compares them with the flood fill
+    * halfway and at the end.*/
+   private static long checkOnline(int n, SplittableRandom random){
+      
+      int sites = n * n;
+      int order[] = new int[sites];
+      
+      for(int i=0; i<sites; i++){
+         
+         int j = random.nextInt(i + 1); //Fisher-Yates, inside-out
+         order[i] = order[j];
+         order[j] = i;
+         
+      }
+      
+      int opened = random.nextInt(sites + 1);
+      boolean open[] = new boolean[sites];
+      PercolationI percs[] = {new Percolation(n), new BitPercolation(n), new StripPercolation(n, ForkJoinPool.commonPool(), 1 + random.nextInt(n))};
+      long mismatches = 0;
+      
+      try(LargePercolation large = new LargePercolation(n)){
+         
+         for(int i=0; i<opened; i++){
+            
+            int site = order[i];
+            open[site] = true;
+            
+            for(PercolationI perc : percs)
+               perc.open(site / n + 1, site % n + 1);
+            
+            large.open(site / n + 1, site % n + 1);
+            
+            if(i == opened / 2 || i == opened - 1)
+               mismatches += compare(n, open, i + 1, percs, large);
+            
+         }
+         
+         if(opened == 0)
+            mismatches += compare(n, open, 0, percs, large);
+         
+      }
+      
+      return mismatches;
+      
+   }
+   
+   
+   private static long compare(int n, boolean open[], int opened, PercolationI percs[], LargePercolation large){
+      
+      boolean full[] = flood(n, open);
+      boolean percolates = percolates(n, full);
+      long mismatches = 0;
+      
+      for(PercolationI perc : percs){
+         
+         if(perc.percolates() != percolates || perc.numberOfOpenSites() != opened)
+            mismatches++;
+         
+         for(int site=0; site<full.length; site++){
+            
+            if(perc.isFull(site / n + 1, site % n + 1) != full[site] || perc.isOpen(site / n + 1, site % n + 1) != open[site])
+               mismatches++;
+            
+         }
+         
+      }
+      
+      if(large.percolates() != percolates || large.numberOfOpenSites() != opened)
+         mismatches++;
+      
+      for(int site=0; site<full.length; site++){
+         
+         if(large.isFull(site / n + 1, site % n + 1) != full[site] || large.isOpen(site / n + 1, site % n + 1) != open[site])
+            mismatches++;
+         
+      }
+      
+      HoshenKopelman hk = new HoshenKopelman(n);
+      long row[] = new long[(n + 63) >>> 6];
+      
+      for(int r=0; r<n; r++){
+         
+         Arrays.fill(row, 0);
+         
+         for(int c=0; c<n; c++){
+            
+            if(open[r * n + c])
+               row[c >>> 6] |= 1L << c;
+            
+         }
+         
+         hk.addRow(row);
+         
+      }
+      
+      long clusters[] = clusters(n, open);
+      
+      if(hk.percolates() != percolates || hk.numberOfOpenSites() != opened || hk.clusters() != clusters[0]
+            || hk.largestCluster() != clusters[1])
+         mismatches++;
+      
+      return mismatches;
+      
+   }
+   
+   
+   /**It runs a random script of 2n^2 opens, closes and questions, about 2n of them questions, on an {@linkplain OfflinePercolation},
+    * and asks the flood fill each question at the point it was asked.*/
+   private static long checkOffline(int n, SplittableRandom random){
+      
+      OfflinePercolation perc = new OfflinePercolation(n);
+      boolean open[] = new boolean[n * n];
+      boolean expected[] = new boolean[2 * n * n];
+      int questions = 0;
+      
+      for(int op=0; op<2*n*n; op++){
+         
+         int row = 1 + random.nextInt(n);
+         int col = 1 + random.nextInt(n);
+         int site = (row - 1) * n + col - 1;
+         
+         if(random.nextInt(n) == 0){ //a question
+            
+            boolean full[] = flood(n, open);
+            
+            if(random.nextBoolean()){
+               
+               perc.askPercolates();
+               expected[questions++] = percolates(n, full);
+               
+            }else{
+               
+               perc.askIsFull(row, col);
+               expected[questions++] = full[site];
+               
+            }
+            
+         }else if(random.nextInt(4) == 0){
+            
+            perc.close(row, col);
+            open[site] = false;
+            
+         }else{
+            
+            perc.open(row, col);
+            open[site] = true;
+            
+         }
+         
+      }
+      
+      boolean answers[] = perc.answers();
+      long mismatches = answers.length == questions ? 0 : 1;
+      
+      for(int i=0; i<Math.min(questions, answers.length); i++){
+         
+         if(answers[i] != expected[i])
+            mismatches++;
+         
+      }
+      
+      return mismatches;
+      
+   }
+   
+   
+   /**@return the full sites: the open sites joined to the top row by a path of open sites.*/
+   private static boolean[] flood(int n, boolean open[]){
+      
+      boolean full[] = new boolean[n * n];
+      int queue[] = new int[n * n];
+      int size = 0;
+      
+      for(int col=0; col<n; col++){
+         
+         if(open[col]){
+            
+            full[col] = true;
+            queue[size++] = col;
+            
+         }
+         
+      }
+      
+      for(int head=0; head<size; head++)
+         size = visit(n, open, full, queue, size, queue[head]);
+      
+      return full;
+      
+   }
+   
+   
+   private static boolean percolates(int n, boolean full[]){
+      
+      for(int site=n*(n - 1); site<n*n; site++){
+         
+         if(full[site])
+            return true;
+         
+      }
+      
+      return false;
+      
+   }
+   
+   
+   /**@return the number of clusters and the number of sites of the largest one.*/
+   private static long[] clusters(int n, boolean open[]){
+      
+      boolean seen[] = new boolean[n * n];
+      int queue[] = new int[n * n];
+      long count = 0;
+      long largest = 0;
+      
+      for(int site=0; site<open.length; site++){
+         
+         if(!open[site] || seen[site])
+            continue;
+         
+         seen[site] = true;
+         queue[0] = site;
+         int size = 1;
+         
+         for(int head=0; head<size; head++)
+            size = visit(n, open, seen, queue, size, queue[head]);
+         
+         count++;
+         largest = Math.max(largest, size);
+         
+      }
+      
+      return new long[]{count, largest};
+      
+   }
+   
+   
+   /**It marks and queues the open neighbours of the site not marked yet.
+    * @return the new size of the queue.*/
+   private static int visit(int n, boolean open[], boolean marked[], int queue[], int size, int site){
+      
+      int row = site / n;
+      int col = site % n;
+      
+      if(row > 0 && open[site - n] && !marked[site - n]){
+         
+         marked[site - n] = true;
+         queue[size++] = site - n;
+         
+      }
+      
+      if(row < n - 1 && open[site + n] && !marked[site + n]){
+         
+         marked[site + n] = true;
+         queue[size++] = site + n;
+         
+      }
+      
+      if(col > 0 && open[site - 1] && !marked[site - 1]){
+         
+         marked[site - 1] = true;
+         queue[size++] = site - 1;
+         
+      }
+      
+      if(col < n - 1 && open[site + 1] && !marked[site + 1]){
+         
+         marked[site + 1] = true;
+         queue[size++] = site + 1;
+         
+      }
+      
+      return size;
+      
+   }
+   
+   
+}
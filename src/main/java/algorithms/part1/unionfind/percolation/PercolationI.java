@@ -0,0 +1,21 @@
+package algorithms.part1.unionfind.percolation;
+
+/**
+ * <p align="justify">The percolation contract: an n-by-n grid, rows and columns from 1 to n, (1, 1) the upper-left site.</p>
+ * @author Heron Sanches
+ */
+public interface PercolationI {
+   
+   /**It opens the site (row, col) if it is not open already.*/
+   void open(int row, int col);
+   boolean isOpen(int row, int col);
+   
+   /**@return true if the site is open and connected to the top row through open sites.*/
+   boolean isFull(int row, int col);
+   int numberOfOpenSites();
+   
+   /**@return true if some full site is in the bottom row.*/
+   boolean percolates();
+   
+   
+}
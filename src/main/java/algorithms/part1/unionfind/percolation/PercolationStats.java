@@ -1,80 +1,230 @@
 package algorithms.part1.unionfind.percolation;
 
-import edu.princeton.cs.algs4.StdRandom;
 import edu.princeton.cs.algs4.StdStats;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- *
+ * <p align="justify">The trials run on all cores. Each trial has its own {@linkplain SplittableRandom}, split in trial order from 
+ * the seed before any trial starts, so the same seed gives the same results whatever the number of threads.</p>
+ * <p align="justify">A trial opens the sites in the order of a random permutation of all sites, drawn with Fisher–Yates one site at a 
+ * time, so it never draws a site that is already open. Each thread reuses its {@linkplain Percolation} and its permutation array for 
+ * all its trials.</p>
+ * <p align="justify">Instead of a fixed number of trials, it can also run until the confidence interval is narrow enough, see
+ * {@linkplain #PercolationStats(int, double, int, long, int)}.</p>
  * @author Heron Sanches
  */
 public class PercolationStats {
     
-   private final int trials;
+   /**z of the 95% confidence interval.*/
+   private static final double CONFIDENCE_95 = 1.96;
+   
+   /**Fewest trials before the adaptive mode trusts the confidence interval.*/
+   private static final int MIN_TRIALS = 30;
+   
+   /**Trials of each batch of the adaptive mode, per thread.*/
+   private static final int BATCH_PER_THREAD = 8;
+   
+   private int trials;
    private final int n;
    private final int qttSites;
    private double percTValues[];
-   private int ptvActualIndex;
    
    
    public PercolationStats(int n, int trials){ //perform trials independent experiments on an n-by-n grid
+      this(n, trials, new SplittableRandom().nextLong(), Runtime.getRuntime().availableProcessors());
+   }
+   
+   
+   /**@param seed the same seed gives the same results.
+    * @param threads how many trials run at the same time.*/
+   public PercolationStats(int n, int trials, long seed, int threads){
 
-      if(n <= 0 || trials <=0)
+      if(n <= 0 || trials <=0 || threads <= 0)
          throw new IllegalArgumentException();
       
+      if(n > Percolation.MAX_N)
+         throw new IllegalArgumentException("n > "+Percolation.MAX_N);
+      
       this.n = n;
       this.qttSites = n*n;
       this.trials = trials;
       this.percTValues = new double[trials];
       
+      SplittableRandom seedRandom = new SplittableRandom(seed);
+      SplittableRandom randoms[] = new SplittableRandom[trials];
+      
       for(int i=0; i<trials; i++)
-         monteCarloSimulation();
+         randoms[i] = seedRandom.split();
+      
+      threads = Math.min(threads, trials);
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      
+      try{
+         runTrials(executor, randoms, 0, new Percolation[threads], new int[threads][]);
+      }finally{
+         executor.shutdownNow();
+      }
       
    }
    
    
-   /**Calculates row and column for a determined site.
-    @return row and column on the Percolation pattern, [1, n]. int[0]: row; int[1]: column*/
-   private int[] calculatesRowColumn(int site){
+   /**<p align="justify">Adaptive precision: the trials run in batches, and after each batch the thresholds are added, in trial order, to
+    * a running mean and variance (Welford). It stops at the first trial (at least {@value #MIN_TRIALS}) where the half-width of the 95%
+    * confidence interval is at most halfWidth, or at maxTrials. The trials of the batch after that one are dropped, so the same seed
+    * gives the same trials whatever the number of threads.</p>
+    * @param halfWidth target half-width of the 95% confidence interval.
+    * @param maxTrials it stops there, even if the interval is still wider.
+    * @param seed the same seed gives the same results.
+    * @param threads how many trials run at the same time.*/
+   public PercolationStats(int n, double halfWidth, int maxTrials, long seed, int threads){
+      
+      if(n <= 0 || !(halfWidth > 0) || maxTrials <= 0 || threads <= 0)
+         throw new IllegalArgumentException();
       
-      int res[] = new int[2];
+      if(n > Percolation.MAX_N)
+         throw new IllegalArgumentException("n > "+Percolation.MAX_N);
       
-      if((site % n) == 0)
-         res[0] = site / n;
-      else
-         res[0] = Math.floorDiv(site, n) + 1; //row on the Percolation pattern, [1,n]
+      this.n = n;
+      this.qttSites = n*n;
+      this.percTValues = new double[Math.min(maxTrials, MIN_TRIALS)];
       
-      res[1] = site - (n * (res[0] - 1)); //column on the Percolation pattern, [1,n]
-      return res;
+      SplittableRandom seedRandom = new SplittableRandom(seed);
+      threads = Math.min(threads, maxTrials);
+      Percolation percs[] = new Percolation[threads];
+      int permutations[][] = new int[threads][];
+      int batch = BATCH_PER_THREAD * threads;
+      int computed = 0;
+      double mean = 0;
+      double squares = 0; //sum of the squared distances to the mean
+      ExecutorService executor = Executors.newFixedThreadPool(threads); //one for all the batches
+      
+      try{
+         
+         while(computed < maxTrials){
+            
+            SplittableRandom randoms[] = new SplittableRandom[Math.min(batch, maxTrials - computed)];
+            
+            for(int i=0; i<randoms.length; i++)
+               randoms[i] = seedRandom.split(); //the same trial always gets the same random
+            
+            if(computed + randoms.length > percTValues.length)
+               percTValues = Arrays.copyOf(percTValues, Math.min(maxTrials, Math.max(2 * percTValues.length, computed + randoms.length)));
+            
+            runTrials(executor, randoms, computed, percs, permutations);
+            computed += randoms.length;
+            
+            while(trials < computed){ //Welford, in trial order
+               
+               double x = percTValues[trials++];
+               double delta = x - mean;
+               mean += delta / trials;
+               squares += delta * (x - mean);
+               
+               if(trials >= MIN_TRIALS && CONFIDENCE_95 * Math.sqrt(squares / (trials - 1) / trials) <= halfWidth){
+                  
+                  percTValues = Arrays.copyOf(percTValues, trials);
+                  return;
+                  
+               }
+               
+            }
+            
+         }
+         
+      }finally{
+         executor.shutdownNow();
+      }
+      
+      percTValues = Arrays.copyOf(percTValues, trials);
       
    }
    
    
-   private void monteCarloSimulation(){
+   /**Every thread takes the next trial not taken yet, until all of them are done.
+    * @param executor one thread per worker, shut down by the caller.
+    * @param randoms one per trial, from the trial first.
+    * @param percs one per thread, made by the thread if null, and kept for the next call.
+    * @param permutations one per thread, like percs.*/
+   private void runTrials(ExecutorService executor, SplittableRandom randoms[], int first, Percolation percs[], int permutations[][]){
       
-      Percolation perc = new Percolation(n);
-      int site;
-      int rowColumn[];
+      AtomicInteger nextTrial = new AtomicInteger();
+      List<Callable<Void>> workers = new ArrayList<>();
       
-      do{
+      for(int i=0; i<percs.length; i++){
          
-         site = StdRandom.uniform(1, qttSites+1);
-         rowColumn = calculatesRowColumn(site);
-         
-         while(perc.isOpen(rowColumn[0], rowColumn[1])){
+         int worker = i;
+         workers.add(() -> {
             
-            site = StdRandom.uniform(1, qttSites+1);
-            rowColumn = calculatesRowColumn(site);
+            if(percs[worker] == null){
+               
+               percs[worker] = new Percolation(n);
+               permutations[worker] = new int[qttSites];
+               
+            }
             
-         }
-
-         perc.open(rowColumn[0], rowColumn[1]);
+            int trial;
+            
+            while( (trial = nextTrial.getAndIncrement()) < randoms.length)
+               percTValues[first + trial] = monteCarloSimulation(randoms[trial], percs[worker], permutations[worker]);
+            
+            return null;
+            
+         });
+         
+      }
+      
+      try{
+         
+         for(Future<Void> worker : executor.invokeAll(workers))
+            worker.get();
+         
+      }catch(InterruptedException ex){
+         
+         Thread.currentThread().interrupt();
+         throw new IllegalStateException(ex);
+         
+      }catch(ExecutionException ex){
+         throw new IllegalStateException(ex.getCause());
+      }
+      
+   }
+   
+   
+   /**@param perc reused from the last trial, it is reset here.
+    * @param permutation reused from the last trial, it is restarted here, so the result depends only on the random.
+    * @return the percolation threshold of one trial, the fraction of sites opened until the system percolates.*/
+   private double monteCarloSimulation(SplittableRandom random, Percolation perc, int permutation[]){
+      
+      perc.reset();
+      
+      for(int i=0; i<qttSites; i++)
+         permutation[i] = i;
+      
+      int site;
+      int swap;
+      
+      for(int opened=0; ; opened++){
+         
+         swap = opened + random.nextInt(qttSites - opened); //Fisher–Yates: the next site is drawn among the blocked ones
+         site = permutation[swap];
+         permutation[swap] = permutation[opened];
+         permutation[opened] = site;
+         
+         perc.open(site / n + 1, site % n + 1); //row and column on the Percolation pattern, [1, n]
 
          if(perc.percolates())
-            break;
+            return (double) perc.numberOfOpenSites() / qttSites;
          
-      }while(true);
-      
-      percTValues[ptvActualIndex++] = Double.valueOf(String.valueOf(perc.numberOfOpenSites())) / Double.valueOf(String.valueOf(qttSites));
+      }
       
    }
    
@@ -90,20 +240,56 @@ public class PercolationStats {
    
    
    public double confidenceLo(){ // low  endpoint of 95% confidence interval
-      return mean() - (1.96 * stddev() / Math.sqrt(trials));
+      return mean() - (CONFIDENCE_95 * stddev() / Math.sqrt(trials));
    }
    
    
    public double confidenceHi(){ // high endpoint of 95% confidence interval
-      return mean() + (1.96 * stddev() / Math.sqrt(trials));
+      return mean() + (CONFIDENCE_95 * stddev() / Math.sqrt(trials));
+   }
+   
+   
+   /**@return the number of trials run, less than asked in the adaptive mode if the interval got narrow enough first.*/
+   public int trials(){
+      return trials;
    }
    
    
    /**<p align="justify">Two command-line arguments n and T, performs T independent computational experiments (discussed above)
-    * on an n-by-n grid, and prints the sample mean, sample standard deviation, and the 95% confidence interval for the percolation threshold.</p>*/
+    * on an n-by-n grid, and prints the sample mean, sample standard deviation, and the 95% confidence interval for the percolation threshold.
+    * Optional third and fourth arguments: the seed and the number of threads.</p>
+    * <p align="justify">With -Dpercolation.curve=p1,p2,..., the T trials run in the {@linkplain NewmanZiff} mode instead, and it prints
+    * the percolation probability and the largest cluster fraction for each p.</p>
+    * <p align="justify">With -Dpercolation.halfWidth=h, T is the most trials, and it stops as soon as the half-width of the 95% 
+    * confidence interval is at most h, see {@linkplain #PercolationStats(int, double, int, long, int)}.</p>*/
    public static void main(String[] args){ // test client (described below)
 
-      PercolationStats ps = new PercolationStats(Integer.valueOf(args[0]), Integer.valueOf(args[1]));
+      int n = Integer.valueOf(args[0]);
+      int trials = Integer.valueOf(args[1]);
+      long seed = args.length > 2 ? Long.valueOf(args[2]) : new SplittableRandom().nextLong();
+      int threads = args.length > 3 ? Integer.valueOf(args[3]) : Runtime.getRuntime().availableProcessors();
+      String curve = System.getProperty("percolation.curve");
+      String halfWidth = System.getProperty("percolation.halfWidth");
+      
+      if(curve != null){
+         
+         NewmanZiff nz = new NewmanZiff(n, trials, seed, threads);
+         System.out.println("p\tP(p)\tlargest cluster");
+         
+         for(String p : curve.split(","))
+            System.out.println(p.trim()+"\t"+nz.percolationProbability(Double.valueOf(p))+"\t"+nz.largestClusterFraction(Double.valueOf(p)));
+         
+         return;
+         
+      }
+      
+      PercolationStats ps = halfWidth != null 
+            ? new PercolationStats(n, Double.valueOf(halfWidth), trials, seed, threads)
+            : new PercolationStats(n, trials, seed, threads);
+      
+      if(halfWidth != null)
+         System.out.println("trials                  = "+ps.trials());
+      
       System.out.println("mean                    = "+ps.mean());
       System.out.println("stddev                  = "+ps.stddev());
       System.out.println("95% confidence interval = ["+ps.confidenceLo()+", "+ps.confidenceHi()+"]\n");
@@ -0,0 +1,367 @@
+package algorithms.part1.unionfind.percolation;
+
+import algorithms.part1.unionfind.EdgeReaderI;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p align="justify">Percolation of one big grid on a fork-join pool. Opening a site only sets its bit; when isFull() or percolates() is
+ * asked, the grid is split in horizontal strips and each strip labels its clusters on its own, in parallel, in a union-find over its
+ * own sites that always keeps the smaller id as the root. The ids [0, n) are the strip's top row and [n, 2n) its bottom row, so the
+ * root of a cluster that touches the top row of the strip is in [0, n), of one that touches only the bottom row is in [n, 2n), and a
+ * cluster with a bigger root touches neither, so it can not be full.</p>
+ * <p align="justify">Then only the boundary rows are merged, on one thread, in a small union-find of 2n ids per strip: each pair of open
+ * sites, one on the bottom row of a strip and the other right below on the top row of the next strip, unites their clusters. The
+ * clusters of the top row of the grid get the TOP flag, a site is full only if its own cluster has it, so there is no backwash, and
+ * the system percolates if a cluster of the bottom row has it.</p>
+ * @author Heron Sanches
+ */
+public class StripPercolation implements PercolationI{
+   
+   private static final int TOP = 1;
+   
+   /**Fewest rows of a strip, unless the grid is smaller.*/
+   private static final int MIN_STRIP_ROWS = 32;
+   
+   private final int n;
+   private final int words;
+   private final ForkJoinPool pool;
+   private final int stripRows;
+   private final int strips;
+   
+   /**One bit per site, the row r is the longs [r * words, (r + 1) * words). 0: blocked, 1:opened.*/
+   private final long sites[];
+   
+   /**Union-find of each strip, in its own region [first row of the strip * n, last row of the strip * n + n). Only meaningful on
+    * open sites.*/
+   private final int parent[];
+   
+   /**Union-find of the boundary rows, 2n ids per strip, and the TOP flag of its roots.*/
+   private final int boundary[];
+   private final byte flags[];
+   private int qttOpenSites;
+   private boolean percolates;
+   
+   /**Some site was opened after the last labeling.*/
+   private boolean changed = true;
+   
+   
+   /**Strips of about 4 per worker of the common pool.*/
+   public StripPercolation(int n){
+      this(n, ForkJoinPool.commonPool(), Math.max(MIN_STRIP_ROWS, (n + 4 * ForkJoinPool.commonPool().getParallelism() - 1) / (4 * ForkJoinPool.commonPool().getParallelism())));
+   }
+   
+   
+   /**@param pool the workers that label the strips.
+    * @param stripRows rows of each strip, the last one may have less.*/
+   public StripPercolation(int n, ForkJoinPool pool, int stripRows){
+      
+      if(n <= 0 || stripRows <= 0)
+         throw new IllegalArgumentException();
+      
+      if(n > Percolation.MAX_N)
+         throw new IllegalArgumentException("n > "+Percolation.MAX_N);
+      
+      this.n = n;
+      this.words = (n + 63) >>> 6;
+      this.pool = pool;
+      this.stripRows = Math.min(stripRows, n);
+      this.strips = (n + this.stripRows - 1) / this.stripRows;
+      this.sites = new long[n * words];
+      this.parent = new int[n * n];
+      this.boundary = new int[strips * 2 * n];
+      this.flags = new byte[strips * 2 * n];
+      
+   }
+   
+   
+   /**@param row from 0.
+    * @param col from 0.*/
+   private boolean opened(int row, int col){
+      return (sites[row * words + (col >>> 6)] & (1L << col)) != 0;
+   }
+   
+   
+   private void check(int row, int col){
+      
+      if(row < 1 || col < 1 || row > n || col > n)
+         throw new IndexOutOfBoundsException();
+      
+   }
+   
+   
+   @Override
+   public void open(int row, int col){ // open site (row, col) if it is not open already
+      
+      check(row, col);
+      
+      if(!opened(row - 1, col - 1)){
+         
+         sites[(row - 1) * words + ((col - 1) >>> 6)] |= 1L << (col - 1);
+         qttOpenSites++;
+         changed = true;
+         
+      }
+      
+   }
+   
+   
+   @Override
+   public boolean isOpen(int row, int col){ // is site (row, col) open?
+      
+      check(row, col);
+      return opened(row - 1, col - 1);
+      
+   }
+   
+   
+   @Override
+   public boolean isFull(int row, int col){  // is site (row, col) full?
+      
+      check(row, col);
+      label();
+      
+      if(!opened(row - 1, col - 1))
+         return false;
+      
+      int strip = (row - 1) / stripRows;
+      int root = localRoot(row - 1, col - 1);
+      return root < 2 * n && (flags[boundaryRoot(strip * 2 * n + root)] & TOP) != 0;
+      
+   }
+   
+   
+   @Override
+   public int numberOfOpenSites(){ // number of open sites
+      return qttOpenSites;
+   }
+   
+   
+   @Override
+   public boolean percolates(){ // does the system percolate?
+      
+      label();
+      return percolates;
+      
+   }
+   
+   
+   /**@return the id of the site (row, col) in the union-find of its strip, [0, n) for the top row of the strip, [n, 2n) for the bottom
+    * row, and the other rows after them.*/
+   private int id(int row, int col){
+      
+      int first = row / stripRows * stripRows;
+      int i = row - first;
+      
+      if(i == 0)
+         return col;
+      
+      if(row == Math.min(first + stripRows, n) - 1)
+         return n + col;
+      
+      return (i + 1) * n + col;
+      
+   }
+   
+   
+   /**@return the root of the site (row, col) in the union-find of its strip, as an id of the strip.*/
+   private int localRoot(int row, int col){
+      return root(row / stripRows * stripRows * n, id(row, col));
+   }
+   
+   
+   /**It labels the strips in parallel and then merges their boundaries, if some site was opened after the last labeling.*/
+   private void label(){
+      
+      if(!changed)
+         return;
+      
+      changed = false;
+      pool.invoke(new StripTask(0, strips));
+      
+      for(int i=0; i<boundary.length; i++)
+         boundary[i] = i;
+      
+      Arrays.fill(flags, (byte) 0);
+      
+      for(int strip=0; strip<strips-1; strip++){
+         
+         int bottom = Math.min((strip + 1) * stripRows, n) - 1;
+         
+         for(int col=0; col<n; col++){
+            
+            if(opened(bottom, col) && opened(bottom + 1, col))
+               boundaryUnion(strip * 2 * n + localRoot(bottom, col), (strip + 1) * 2 * n + localRoot(bottom + 1, col));
+            
+         }
+         
+      }
+      
+      for(int col=0; col<n; col++){
+         
+         if(opened(0, col))
+            flags[boundaryRoot(localRoot(0, col))] |= TOP;
+         
+      }
+      
+      percolates = false;
+      int last = (strips - 1) * 2 * n;
+      
+      for(int col=0; col<n; col++){
+         
+         if(opened(n - 1, col))
+            percolates |= (flags[boundaryRoot(last + localRoot(n - 1, col))] & TOP) != 0;
+         
+      }
+      
+   }
+   
+   
+   private int boundaryRoot(int id){
+      
+      while(boundary[id] != id){
+         
+         boundary[id] = boundary[boundary[id]]; //path halving
+         id = boundary[id];
+         
+      }
+      
+      return id;
+      
+   }
+   
+   
+   private void boundaryUnion(int p, int q){
+      
+      p = boundaryRoot(p);
+      q = boundaryRoot(q);
+      
+      if(p < q)
+         boundary[q] = p;
+      else
+         boundary[p] = q;
+      
+   }
+   
+   
+   /**It labels the strip that starts at the row first, from the top to the bottom and from the left to the right.*/
+   private void labelStrip(int first){
+      
+      int base = first * n;
+      int last = Math.min(first + stripRows, n);
+      
+      for(int row=first; row<last; row++){
+         
+         for(int col=0; col<n; col++){
+            
+            if(!opened(row, col))
+               continue;
+            
+            int id = id(row, col);
+            parent[base + id] = id;
+            
+            if(col > 0 && opened(row, col - 1))
+               localUnion(base, id, id(row, col - 1));
+            
+            if(row > first && opened(row - 1, col))
+               localUnion(base, id, id(row - 1, col));
+            
+         }
+         
+      }
+      
+   }
+   
+   
+   /**It unites two ids of a strip, the smaller root becomes the root of both.*/
+   private void localUnion(int base, int p, int q){
+      
+      p = root(base, p);
+      q = root(base, q);
+      
+      if(p < q)
+         parent[base + q] = p;
+      else if(q < p)
+         parent[base + p] = q;
+      
+   }
+   
+   
+   private int root(int base, int id){
+      
+      int up;
+      
+      while( (up = parent[base + id]) != id){
+         
+         parent[base + id] = parent[base + up]; //path halving
+         id = parent[base + id];
+         
+      }
+      
+      return id;
+      
+   }
+   
+   
+   public static void main(String[] args) throws IOException {   // test client (optional)
+      
+      try(EdgeReaderI input = EdgeReaderI.open(args[0])){
+         
+         StripPercolation perc = new StripPercolation(input.nextInt());
+         int batch[] = new int[1 << 13];
+         int size;
+         
+         while((size = input.nextBatch(batch)) > 0){
+            
+            for(int i=0; i<size; i+=2)
+               perc.open(batch[i], batch[i+1]);
+            
+         }
+         
+         System.out.println("percolates? "+perc.percolates());
+         System.out.println("n opened sites: "+perc.numberOfOpenSites());
+         
+      }
+      
+   }
+   
+   
+   /**Labels the strips [from, to), splitting them in halves down to one strip per task.*/
+   private final class StripTask extends RecursiveAction {
+      
+      private static final long serialVersionUID = 1L;
+      
+      private final int from;
+      private final int to;
+      
+      
+      private StripTask(int from, int to){
+         
+         this.from = from;
+         this.to = to;
+         
+      }
+      
+      
+      @Override
+      protected void compute(){
+         
+         if(to - from == 1){
+            
+            labelStrip(from * stripRows);
+            return;
+            
+         }
+         
+         int middle = (from + to) >>> 1;
+         invokeAll(new StripTask(from, middle), new StripTask(middle, to));
+         
+      }
+      
+      
+   }
+   
+   
+}